@@ -0,0 +1,381 @@
+package bench;
+
+import src.BattleEngine;
+import src.DamagePerCharacter;
+import src.GameTables;
+import src.GameRandom;
+import src.Histogram;
+import src.Monster;
+import src.Player;
+import src.TimedTyping;
+import src.WordBank;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo balance sweep: simulated runs of the headless battle engine
+ * over a grid of typing skill, damage, monster stat and level curve settings.
+ *
+ * A run is a fresh player fighting battles of increasing difficulty until
+ * defeated (or MAX_BATTLES). Every cell's runs are split into fork/join
+ * tasks; each leaf gets its own engine, word draws and GameRandom seeded from
+ * (sweep seed, cell, first run), so results don't depend on thread timing
+ * and no state is shared. Each cell builds its own GameTables from the base
+ * balance values plus its settings, and hands them to the players, monsters
+ * and engines it runs. Leaves return histograms that are merged on the way
+ * back up.
+ *
+ * The default grid only varies typing skill and damage settings and takes a
+ * few seconds; --monster-axes and --level-axes add the monster stat scales
+ * and the level curve (4x and 12x as many cells). Settings that aren't swept
+ * keep their balance values.
+ *
+ * Usage: BalanceSweep [--runs n] [--seed s] [--csv sweep.csv] [--balance balance.properties]
+ *                     [--monster-axes] [--level-axes]
+ */
+public class BalanceSweep {
+    private static final int MAX_BATTLES = 50;
+    private static final int MAX_TURNS = 60;
+    private static final int MAX_LEVEL = 60;
+    private static final int RUNS_PER_LEAF = 256;
+
+    // Grid axes
+    private static final double[] ACCURACIES = {50, 65, 80, 95};
+    private static final double[] CRITICAL_THRESHOLDS = {90, 95};
+    private static final double[] CRITICAL_MULTIPLIERS = {1.25, 1.5, 2.0};
+    private static final double[] DAMAGE_PER_CHAR = {0.8, 1.0, 1.2};
+    // Scales on every monster type's health and attack multipliers (--monster-axes)
+    private static final double[] MONSTER_HEALTH_SCALES = {1.0, 1.5};
+    private static final double[] MONSTER_ATTACK_SCALES = {1.0, 1.5};
+    // Level curve (--level-axes)
+    private static final int[] EXPERIENCE_PER_LEVEL_SQUARED = {15, 20, 30};
+    private static final int[] HEALTH_PER_LEVEL = {10, 20};
+    private static final int[] DAMAGE_PER_LEVEL = {5, 10};
+
+    /**
+     * One point of the parameter grid
+     */
+    static class Cell {
+        final int index;
+        final double accuracy;
+        final double criticalThreshold;
+        final double criticalMultiplier;
+        final double damagePerChar;
+        final double monsterHealthScale;
+        final double monsterAttackScale;
+        final int experiencePerLevelSquared;
+        final int healthPerLevel;
+        final int damagePerLevel;
+        final GameTables tables;
+
+        Cell(int index, double accuracy, double criticalThreshold,
+             double criticalMultiplier, double damagePerChar,
+             double monsterHealthScale, double monsterAttackScale,
+             int experiencePerLevelSquared, int healthPerLevel, int damagePerLevel,
+             Properties balance, GameTables base) {
+            this.index = index;
+            this.accuracy = accuracy;
+            this.criticalThreshold = criticalThreshold;
+            this.criticalMultiplier = criticalMultiplier;
+            this.damagePerChar = damagePerChar;
+            this.monsterHealthScale = monsterHealthScale;
+            this.monsterAttackScale = monsterAttackScale;
+            this.experiencePerLevelSquared = experiencePerLevelSquared;
+            this.healthPerLevel = healthPerLevel;
+            this.damagePerLevel = damagePerLevel;
+            this.tables = buildTables(balance, base);
+        }
+
+        /**
+         * The base balance values with this cell's settings on top
+         */
+        private GameTables buildTables(Properties balance, GameTables base) {
+            Properties values = new Properties();
+            values.putAll(balance);
+            for (Monster.MonsterType type : Monster.MonsterType.values()) {
+                String prefix = "monster." + type.name() + ".";
+                values.setProperty(prefix + "health",
+                        Double.toString(base.healthMultiplier(type) * monsterHealthScale));
+                values.setProperty(prefix + "attack",
+                        Double.toString(base.attackMultiplier(type) * monsterAttackScale));
+            }
+            values.setProperty("player.experience.perLevelSquared", Integer.toString(experiencePerLevelSquared));
+            values.setProperty("player.health.perLevel", Integer.toString(healthPerLevel));
+            values.setProperty("player.damage.perLevel", Integer.toString(damagePerLevel));
+            return GameTables.fromProperties(values);
+        }
+    }
+
+    /**
+     * Outcome counts for some runs of one cell; merges by addition
+     */
+    static class CellStats {
+        long runs;
+        long battlesWon;
+        long battlesLost;
+        final Histogram turnsToKill = new Histogram(MAX_TURNS);
+        final Histogram levelReached = new Histogram(MAX_LEVEL);
+        final Histogram battlesSurvived = new Histogram(MAX_BATTLES);
+
+        CellStats merge(CellStats other) {
+            runs += other.runs;
+            battlesWon += other.battlesWon;
+            battlesLost += other.battlesLost;
+            turnsToKill.merge(other.turnsToKill);
+            levelReached.merge(other.levelReached);
+            battlesSurvived.merge(other.battlesSurvived);
+            return this;
+        }
+
+        double winRate() {
+            long battles = battlesWon + battlesLost;
+            return battles == 0 ? 0 : (double) battlesWon / battles;
+        }
+    }
+
+    /**
+     * Runs [from, to) of one cell, split in half until small enough
+     */
+    static class SweepTask extends RecursiveTask<CellStats> {
+        private final Cell cell;
+        private final WordBank words;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        SweepTask(Cell cell, WordBank words, long seed, int from, int to) {
+            this.cell = cell;
+            this.words = words;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CellStats compute() {
+            if (to - from <= RUNS_PER_LEAF) {
+                return simulate();
+            }
+            int middle = (from + to) >>> 1;
+            SweepTask left = new SweepTask(cell, words, seed, from, middle);
+            left.fork();
+            CellStats right = new SweepTask(cell, words, seed, middle, to).compute();
+            return right.merge(left.join());
+        }
+
+        private CellStats simulate() {
+            // Everything this leaf touches is its own
+            GameRandom random = new GameRandom(seed ^ (cell.index * 0x9E3779B97F4A7C15L) ^ ((long) from << 32));
+            TimedTyping challenges = new TimedTyping(words, random.newStream(GameRandom.Purpose.CHALLENGE));
+            DamagePerCharacter damage = new DamagePerCharacter(cell.damagePerChar, 1.0,
+                    cell.criticalThreshold, cell.criticalMultiplier);
+            BattleEngine engine = new BattleEngine(challenges, damage);
+            engine.setRandom(random);
+            engine.setTables(cell.tables);
+
+            CellStats stats = new CellStats();
+            SkillTypist typist = new SkillTypist(cell.accuracy, random.newStream(GameRandom.Purpose.DICE));
+            StatsEvents events = new StatsEvents(stats);
+
+            for (int run = from; run < to; run++) {
+                Player player = new Player("Sim", cell.tables);
+                engine.setDifficulty(1);
+                int won = engine.runGame(player, typist, events, MAX_BATTLES);
+                stats.runs++;
+                stats.levelReached.add(player.getLevel());
+                stats.battlesSurvived.add(won);
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Attacks every turn with accuracy spread around a skill level, and
+     * drinks a potion when low on health
+     */
+    static class SkillTypist implements BattleEngine.Typist {
+        private final double skill;
+        private final Random random;
+
+        SkillTypist(double skill, Random random) {
+            this.skill = skill;
+            this.random = random;
+        }
+
+        @Override
+        public BattleEngine.Action chooseAction(Player player, Monster monster) {
+            if (player.getPotionCount() > 0 && player.getHealth() * 10 < player.getMaxHealth() * 3) {
+                return BattleEngine.Action.POTION;
+            }
+            return BattleEngine.Action.ATTACK;
+        }
+
+        @Override
+        public TimedTyping.TypingResult type(String challenge, int timeLimit) {
+            double accuracy = Math.max(0, Math.min(100, skill + random.nextGaussian() * 10));
+            return new TimedTyping.TypingResult(accuracy, challenge, false);
+        }
+    }
+
+    /**
+     * Counts turns per battle into a leaf's stats
+     */
+    static class StatsEvents implements BattleEngine.Events {
+        private final CellStats stats;
+        private int turns;
+
+        StatsEvents(CellStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void battleStarted(Player player, Monster monster) {
+            turns = 0;
+        }
+
+        @Override
+        public void attacked(Player player, Monster monster, String challenge,
+                             TimedTyping.TypingResult result, DamagePerCharacter.HitType hitType, int damage) {
+            turns++;
+        }
+
+        @Override
+        public void victory(Player player, Monster monster, int experience,
+                            String levelUpMessage, boolean droppedPotion) {
+            stats.battlesWon++;
+            stats.turnsToKill.add(turns);
+        }
+
+        @Override
+        public void defeat(Player player, Monster monster) {
+            stats.battlesLost++;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int runs = 2000;
+        long seed = 1;
+        String csvPath = "balance-sweep.csv";
+        Properties balance = new Properties();
+        boolean monsterAxes = false;
+        boolean levelAxes = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs":
+                    runs = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--csv":
+                    csvPath = args[++i];
+                    break;
+                case "--balance":
+                    // Balance values the grid's settings go on top of, instead of the defaults
+                    try (Reader reader = Files.newBufferedReader(Paths.get(args[++i]), StandardCharsets.UTF_8)) {
+                        balance.load(reader);
+                    }
+                    break;
+                case "--monster-axes":
+                    monsterAxes = true;
+                    break;
+                case "--level-axes":
+                    levelAxes = true;
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    return;
+            }
+        }
+
+        GameTables base = GameTables.fromProperties(balance);
+        double[] healthScales = monsterAxes ? MONSTER_HEALTH_SCALES : new double[] {1.0};
+        double[] attackScales = monsterAxes ? MONSTER_ATTACK_SCALES : new double[] {1.0};
+        // Axes left out keep the base curve, read back from the level 1 and 2 entries
+        int[] perLevelSquaredValues = levelAxes ? EXPERIENCE_PER_LEVEL_SQUARED
+                : new int[] {base.experienceToNextLevel(1)};
+        int[] healthPerLevelValues = levelAxes ? HEALTH_PER_LEVEL
+                : new int[] {base.maxHealth(2) - base.maxHealth(1)};
+        int[] damagePerLevelValues = levelAxes ? DAMAGE_PER_LEVEL
+                : new int[] {base.damageMultiplier(2) - base.damageMultiplier(1)};
+        List<Cell> cells = new ArrayList<>();
+        for (double accuracy : ACCURACIES) {
+            for (double threshold : CRITICAL_THRESHOLDS) {
+                for (double multiplier : CRITICAL_MULTIPLIERS) {
+                    for (double perChar : DAMAGE_PER_CHAR) {
+                        for (double healthScale : healthScales) {
+                            for (double attackScale : attackScales) {
+                                for (int perLevelSquared : perLevelSquaredValues) {
+                                    for (int healthPerLevel : healthPerLevelValues) {
+                                        for (int damagePerLevel : damagePerLevelValues) {
+                                            cells.add(new Cell(cells.size(), accuracy, threshold, multiplier,
+                                                    perChar, healthScale, attackScale, perLevelSquared,
+                                                    healthPerLevel, damagePerLevel, balance, base));
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        WordBank words = TimedTyping.defaultWordBank();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long start = System.nanoTime();
+
+        List<SweepTask> tasks = new ArrayList<>();
+        for (Cell cell : cells) {
+            tasks.add(new SweepTask(cell, words, seed, 0, runs));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(tasks);
+                return null;
+            }
+        });
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d cells x %d runs in %.2f s on %d threads%n",
+                cells.size(), runs, seconds, pool.getParallelism());
+
+        try (PrintWriter out = new PrintWriter(new FileWriter(csvPath))) {
+            out.println("accuracy,critical_threshold,critical_multiplier,damage_per_char,"
+                    + "monster_health_scale,monster_attack_scale,experience_per_level_squared,"
+                    + "health_per_level,damage_per_level,runs,"
+                    + "battles,win_rate,turns_mean,turns_p50,turns_p90,"
+                    + "level_mean,level_p50,level_p90,level_max,battles_survived_mean");
+            for (int i = 0; i < cells.size(); i++) {
+                Cell cell = cells.get(i);
+                CellStats stats = tasks.get(i).join();
+                out.printf(Locale.ROOT, "%.0f,%.0f,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%d,%.4f,%.2f,%d,%d,%.2f,%d,%d,%d,%.2f%n",
+                        cell.accuracy, cell.criticalThreshold, cell.criticalMultiplier, cell.damagePerChar,
+                        cell.monsterHealthScale, cell.monsterAttackScale, cell.experiencePerLevelSquared,
+                        cell.healthPerLevel, cell.damagePerLevel,
+                        stats.runs, stats.battlesWon + stats.battlesLost, stats.winRate(),
+                        stats.turnsToKill.mean(), stats.turnsToKill.percentile(0.5),
+                        stats.turnsToKill.percentile(0.9),
+                        stats.levelReached.mean(), stats.levelReached.percentile(0.5),
+                        stats.levelReached.percentile(0.9), stats.levelReached.max(),
+                        stats.battlesSurvived.mean());
+            }
+        }
+        System.out.println("Wrote " + cells.size() + " rows to " + csvPath);
+    }
+}
@@ -0,0 +1,238 @@
+package bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Small JMH-style measurement loop: warm-up iterations, timed measurement
+ * iterations, a sink so results aren't dead-code eliminated, and a GC
+ * profile (bytes allocated per op, allocation rate, collections) taken from
+ * the thread allocation counter and the GC MXBeans.
+ */
+public class BenchmarkHarness {
+
+    /**
+     * One benchmarked call. The returned value is folded into a sink.
+     */
+    public interface Operation {
+        long run();
+    }
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+
+    // Sink for results, read once at the end so the JIT can't drop the work
+    private long sink;
+
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    public BenchmarkHarness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadBean = bean instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) bean : null;
+        if (threadBean != null && threadBean.isThreadAllocatedMemorySupported()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * Measure an operation and return its statistics
+     */
+    public BenchmarkResult measure(String suite, String name, String params, Operation operation) {
+        // Find a batch size that takes roughly a millisecond so timer overhead doesn't matter
+        int batch = calibrate(operation);
+
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(operation, batch);
+        }
+
+        double[] nanosPerOp = new double[measurementIterations];
+        long totalOps = 0;
+        long totalNanos = 0;
+        long allocatedBefore = allocatedBytes();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            long ops = runIteration(operation, batch);
+            long elapsed = System.nanoTime() - start;
+            nanosPerOp[i] = (double) elapsed / ops;
+            totalOps += ops;
+            totalNanos += elapsed;
+        }
+
+        long allocated = allocatedBytes() - allocatedBefore;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcTime = gcTimeMillis() - gcTimeBefore;
+
+        // -1 marks allocation figures as unavailable on this JVM
+        boolean tracked = allocationTracked();
+        return new BenchmarkResult(suite, name, params, nanosPerOp,
+                tracked ? (double) allocated / totalOps : -1,
+                tracked ? allocated / (totalNanos / 1e9) / (1024 * 1024) : -1,
+                gcCount, gcTime);
+    }
+
+    /**
+     * Value of the sink, print it so the results are observably used
+     */
+    public long getSink() {
+        return sink;
+    }
+
+    private long runIteration(Operation operation, int batch) {
+        long deadline = System.nanoTime() + iterationNanos;
+        long ops = 0;
+        long local = 0;
+        do {
+            for (int i = 0; i < batch; i++) {
+                local ^= operation.run();
+            }
+            ops += batch;
+        } while (System.nanoTime() < deadline);
+        sink ^= local;
+        return ops;
+    }
+
+    private int calibrate(Operation operation) {
+        int batch = 1;
+        while (batch < (1 << 20)) {
+            long start = System.nanoTime();
+            long local = 0;
+            for (int i = 0; i < batch; i++) {
+                local ^= operation.run();
+            }
+            sink ^= local;
+            if (System.nanoTime() - start >= 1_000_000L) {
+                break;
+            }
+            batch <<= 1;
+        }
+        return batch;
+    }
+
+    private boolean allocationTracked() {
+        return threadBean != null && threadBean.isThreadAllocatedMemoryEnabled();
+    }
+
+    private long allocatedBytes() {
+        if (!allocationTracked()) {
+            return 0;
+        }
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Statistics for one benchmark
+     */
+    public static class BenchmarkResult {
+        private final String suite;
+        private final String name;
+        private final String params;
+        private final double meanNanos;
+        private final double errorNanos;
+        private final double bytesPerOp;
+        private final double allocationRateMb;
+        private final long gcCount;
+        private final long gcTimeMillis;
+
+        BenchmarkResult(String suite, String name, String params, double[] nanosPerOp,
+                        double bytesPerOp, double allocationRateMb, long gcCount, long gcTimeMillis) {
+            this.suite = suite;
+            this.name = name;
+            this.params = params;
+            this.bytesPerOp = bytesPerOp;
+            this.allocationRateMb = allocationRateMb;
+            this.gcCount = gcCount;
+            this.gcTimeMillis = gcTimeMillis;
+
+            double sum = 0;
+            for (double value : nanosPerOp) {
+                sum += value;
+            }
+            this.meanNanos = sum / nanosPerOp.length;
+
+            double squares = 0;
+            for (double value : nanosPerOp) {
+                squares += (value - meanNanos) * (value - meanNanos);
+            }
+            this.errorNanos = nanosPerOp.length > 1 ? Math.sqrt(squares / (nanosPerOp.length - 1)) : 0;
+        }
+
+        public String getSuite() {
+            return suite;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        public static String csvHeader() {
+            return "suite,benchmark,params,ns_per_op,error_ns,ops_per_sec,bytes_per_op,alloc_mb_per_sec,gc_count,gc_ms";
+        }
+
+        public String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%s,%.2f,%.2f,%.0f,%.1f,%.1f,%d,%d",
+                    suite, name, params, meanNanos, errorNanos, 1e9 / meanNanos,
+                    bytesPerOp, allocationRateMb, gcCount, gcTimeMillis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-12s %-26s %-22s %12.1f +- %8.1f ns/op %12.1f B/op %9.1f MB/s  gc: %d (%d ms)",
+                    suite, name, params, meanNanos, errorNanos, bytesPerOp,
+                    allocationRateMb, gcCount, gcTimeMillis);
+        }
+    }
+
+    /**
+     * Collects results for one run of the runner
+     */
+    public static class Report {
+        private final List<BenchmarkResult> results = new ArrayList<>();
+
+        public void add(BenchmarkResult result) {
+            results.add(result);
+            System.out.println(result);
+        }
+
+        public List<BenchmarkResult> getResults() {
+            return results;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Runs the benchmark suites and prints time and allocation per operation.
+ *
+ * Usage: BenchmarkRunner [suite ...] [--csv results.csv] [--quick]
+ * Suites: scoring, gameplay (default: all). Keep the CSV per release to
+ * compare runs.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws IOException {
+        boolean runScoring = false;
+        boolean runGameplay = false;
+        boolean quick = false;
+        String csvPath = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "scoring":
+                    runScoring = true;
+                    break;
+                case "gameplay":
+                    runGameplay = true;
+                    break;
+                case "--quick":
+                    quick = true;
+                    break;
+                case "--csv":
+                    csvPath = args[++i];
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    return;
+            }
+        }
+        if (!runScoring && !runGameplay) {
+            runScoring = true;
+            runGameplay = true;
+        }
+
+        BenchmarkHarness harness = quick
+                ? new BenchmarkHarness(1, 2, 100)
+                : new BenchmarkHarness(5, 10, 500);
+        BenchmarkHarness.Report report = new BenchmarkHarness.Report();
+
+        if (runScoring) {
+            ScoringBenchmarks.run(harness, report);
+        }
+        if (runGameplay) {
+            GameplayBenchmarks.run(harness, report);
+        }
+
+        if (csvPath != null) {
+            try (PrintWriter out = new PrintWriter(new FileWriter(csvPath))) {
+                out.println(BenchmarkHarness.BenchmarkResult.csvHeader());
+                for (BenchmarkHarness.BenchmarkResult result : report.getResults()) {
+                    out.println(result.toCsv());
+                }
+            }
+            System.out.println("Wrote " + report.getResults().size() + " results to " + csvPath);
+        }
+
+        // Keep the sink observable
+        System.out.println("(sink " + harness.getSink() + ")");
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import src.BattleEngine;
+import src.DamagePerCharacter;
+import src.Monster;
+import src.Player;
+import src.TimedTyping;
+
+/**
+ * Challenge generation, damage and healing, monster creation and levelling
+ */
+public class GameplayBenchmarks {
+    private static final String[] MONSTER_NAMES = {"Goblin", "Orc", "Troll", "Dragon"};
+
+    public static void run(BenchmarkHarness harness, BenchmarkHarness.Report report) {
+        TimedTyping typing = new TimedTyping();
+        try {
+            for (int difficulty = 1; difficulty <= 8; difficulty *= 2) {
+                int level = difficulty;
+                report.add(harness.measure("challenge", "getChallenge", "difficulty=" + level,
+                        () -> typing.getChallenge(level).length()));
+            }
+        } finally {
+            typing.close();
+        }
+
+        DamagePerCharacter damage = new DamagePerCharacter();
+        TimedTyping.TypingResult[] results = {
+                new TimedTyping.TypingResult(100.0, "fireball lightning", false),
+                new TimedTyping.TypingResult(82.5, "fireball lightning", false),
+                new TimedTyping.TypingResult(45.0, "fireball lightning", false),
+                new TimedTyping.TypingResult(10.0, "fireball lightning", false)
+        };
+        int[] next = {0};
+        report.add(harness.measure("damage", "calculateDamage", "mixed tiers", () -> {
+            DamagePerCharacter.DamageResult result = damage.calculateDamage(results[next[0]++ & 3]);
+            return result.getDamage();
+        }));
+        report.add(harness.measure("damage", "calculateHealing", "mixed tiers",
+                () -> damage.calculateHealing(results[next[0]++ & 3])));
+
+        for (int difficulty : new int[]{1, 5, 10, 50}) {
+            report.add(harness.measure("monster", "newMonster", "difficulty=" + difficulty, () -> {
+                Monster monster = new Monster(MONSTER_NAMES[next[0]++ & 3], difficulty);
+                return monster.getMaxHealth();
+            }));
+        }
+
+        // Whole headless battles: a fresh level 1 player against a difficulty 1 monster
+        TimedTyping battleWords = new TimedTyping();
+        try {
+            BattleEngine engine = new BattleEngine(battleWords, damage);
+            for (double accuracy : new double[]{100.0, 60.0}) {
+                BattleEngine.Typist typist = new BattleEngine.Typist() {
+                    @Override
+                    public BattleEngine.Action chooseAction(Player player, Monster monster) {
+                        return BattleEngine.Action.ATTACK;
+                    }
+
+                    @Override
+                    public TimedTyping.TypingResult type(String challenge, int timeLimit) {
+                        return new TimedTyping.TypingResult(accuracy, challenge, false);
+                    }
+                };
+                report.add(harness.measure("battle", "runBattle", "accuracy=" + accuracy, () -> {
+                    engine.setDifficulty(1);
+                    Player player = new Player("Bench");
+                    return engine.runBattle(player, typist, BattleEngine.Events.NONE) ? 1 : 0;
+                }));
+            }
+        } finally {
+            battleWords.close();
+        }
+
+        // Each op levels a fresh player, so the constructor is part of the cost
+        for (int experience : new int[]{100, 100_000, 10_000_000, 1_000_000_000}) {
+            report.add(harness.measure("player", "addExperience", "xp=" + experience, () -> {
+                Player player = new Player("Bench");
+                player.addExperience(experience);
+                return player.getLevel();
+            }));
+        }
+    }
+}
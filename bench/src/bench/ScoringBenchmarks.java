@@ -0,0 +1,79 @@
+package bench;
+
+import src.UtilFunc;
+
+import java.util.Random;
+
+/**
+ * UtilFunc.editDistance across challenge lengths and typo rates
+ */
+public class ScoringBenchmarks {
+    private static final int[] LENGTHS = {8, 32, 64, 256, 4096};
+    private static final double[] ERROR_RATES = {0.0, 0.05, 0.30};
+
+    // Pairs cycled through per benchmark so one input isn't learned by the branch predictor
+    private static final int PAIRS = 64;
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz     ";
+
+    public static void run(BenchmarkHarness harness, BenchmarkHarness.Report report) {
+        for (int length : LENGTHS) {
+            for (double errorRate : ERROR_RATES) {
+                String[] targets = new String[PAIRS];
+                String[] inputs = new String[PAIRS];
+                Random random = new Random(length * 31L + (long) (errorRate * 100));
+                for (int i = 0; i < PAIRS; i++) {
+                    targets[i] = randomText(random, length);
+                    inputs[i] = withTypos(random, targets[i], errorRate);
+                }
+
+                String params = "len=" + length + " err=" + errorRate;
+                int[] next = {0};
+
+                report.add(harness.measure("scoring", "editDistance", params, () -> {
+                    int i = next[0]++ & (PAIRS - 1);
+                    return UtilFunc.editDistance(inputs[i], targets[i]);
+                }));
+
+                // Bounded to the weak-hit tier, as the damage tiers use it
+                int bound = (int) (length * 0.7);
+                report.add(harness.measure("scoring", "editDistanceBounded", params, () -> {
+                    int i = next[0]++ & (PAIRS - 1);
+                    return UtilFunc.editDistance(inputs[i], targets[i], bound);
+                }));
+            }
+        }
+    }
+
+    static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Apply substitutions, insertions and deletions at the given per-character rate
+     */
+    static String withTypos(Random random, String text, double errorRate) {
+        StringBuilder typed = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            if (random.nextDouble() >= errorRate) {
+                typed.append(text.charAt(i));
+                continue;
+            }
+            switch (random.nextInt(3)) {
+                case 0: // substitution
+                    typed.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                    break;
+                case 1: // insertion
+                    typed.append(text.charAt(i)).append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                    break;
+                default: // omission
+                    break;
+            }
+        }
+        return typed.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package src;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+/**
+ * Picks challenge words that exercise a player's weak bigrams.
+ *
+ * Each difficulty bucket has an inverted index from letter bigram to the
+ * words containing it. A draw picks a bigram from the bucket with an alias
+ * table weighted by TypingProfile.bigramWeakness, then a uniform word from
+ * that bigram's list, so it is O(1) however large the bank is. A bucket's
+ * alias table is only rebuilt, in O(bigrams), the next time it is drawn
+ * from after the profile has changed.
+ */
+public class AdaptiveWordSampler {
+    // Postings are built once per word bank and shared, like WordDifficultyIndex
+    private static final Map<WordBank, Postings> POSTINGS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Postings postings;
+    private final TypingProfile profile;
+
+    private final AliasTable[] tables;
+    private final int[] tableVersion;
+    private final double[] weights = new double[TypingProfile.BIGRAMS];
+
+    public AdaptiveWordSampler(WordBank bank, WordDifficultyIndex index, TypingProfile profile) {
+        synchronized (POSTINGS) {
+            this.postings = POSTINGS.computeIfAbsent(bank, b -> new Postings(b, index));
+        }
+        this.profile = profile;
+
+        int buckets = index.getBucketCount();
+        this.tables = new AliasTable[buckets];
+        this.tableVersion = new int[buckets];
+    }
+
+    /**
+     * Word bank index of a word from a bucket, or -1 if no word in the
+     * bucket has a letter bigram
+     */
+    public int draw(int bucket, Random random) {
+        int[] bigrams = postings.bucketBigrams[bucket];
+        if (bigrams.length == 0) {
+            return -1;
+        }
+
+        AliasTable table = tables[bucket];
+        if (table == null || tableVersion[bucket] != profile.getVersion()) {
+            if (table == null) {
+                table = new AliasTable(bigrams.length);
+                tables[bucket] = table;
+            }
+            for (int k = 0; k < bigrams.length; k++) {
+                weights[k] = profile.bigramWeakness(bigrams[k]);
+            }
+            table.rebuild(weights, bigrams.length);
+            tableVersion[bucket] = profile.getVersion();
+        }
+
+        int k = table.sample(random);
+        int[] start = postings.bucketStart[bucket];
+        int from = start[k];
+        return postings.bucketWords[bucket][from + random.nextInt(start[k + 1] - from)];
+    }
+
+    /**
+     * Per bucket: the letter bigrams that occur in it and, for each, the ids
+     * of the words containing it (CSR layout). Holds no reference to the bank.
+     */
+    private static class Postings {
+        final int[][] bucketBigrams;
+        final int[][] bucketStart;
+        final int[][] bucketWords;
+
+        Postings(WordBank bank, WordDifficultyIndex index) {
+            int buckets = index.getBucketCount();
+            bucketBigrams = new int[buckets][];
+            bucketStart = new int[buckets][];
+            bucketWords = new int[buckets][];
+
+            int[] counts = new int[TypingProfile.BIGRAMS];
+            int[] seenIn = new int[TypingProfile.BIGRAMS];
+            for (int b = 0; b < buckets; b++) {
+                Arrays.fill(counts, 0);
+                Arrays.fill(seenIn, -1);
+
+                // First pass counts the words per bigram, each word once per bigram
+                int size = index.bucketSize(b);
+                for (int n = 0; n < size; n++) {
+                    String word = bank.get(index.wordId(b, n));
+                    for (int c = 1; c < word.length(); c++) {
+                        int bigram = letterBigram(word.charAt(c - 1), word.charAt(c));
+                        if (bigram >= 0 && seenIn[bigram] != n) {
+                            seenIn[bigram] = n;
+                            counts[bigram]++;
+                        }
+                    }
+                }
+
+                // Keep only bigrams that occur, numbered densely
+                int present = 0;
+                for (int g = 0; g < TypingProfile.BIGRAMS; g++) {
+                    if (counts[g] > 0) {
+                        present++;
+                    }
+                }
+                int[] bigrams = new int[present];
+                int[] start = new int[present + 1];
+                int[] slot = seenIn; // reused: bigram -> next write position
+                int k = 0;
+                int total = 0;
+                for (int g = 0; g < TypingProfile.BIGRAMS; g++) {
+                    if (counts[g] > 0) {
+                        bigrams[k] = g;
+                        start[k] = total;
+                        slot[g] = total;
+                        total += counts[g];
+                        k++;
+                    }
+                }
+                start[present] = total;
+
+                // Second pass fills the word lists
+                int[] words = new int[total];
+                int[] lastWord = counts; // reused: bigram -> last word added
+                Arrays.fill(lastWord, -1);
+                for (int n = 0; n < size; n++) {
+                    int id = index.wordId(b, n);
+                    String word = bank.get(id);
+                    for (int c = 1; c < word.length(); c++) {
+                        int bigram = letterBigram(word.charAt(c - 1), word.charAt(c));
+                        if (bigram >= 0 && lastWord[bigram] != n) {
+                            lastWord[bigram] = n;
+                            words[slot[bigram]++] = id;
+                        }
+                    }
+                }
+
+                bucketBigrams[b] = bigrams;
+                bucketStart[b] = start;
+                bucketWords[b] = words;
+            }
+        }
+
+        private static int letterBigram(char first, char second) {
+            int a = TypingProfile.keyIndex(first);
+            int b = TypingProfile.keyIndex(second);
+            if (a == TypingProfile.OTHER_KEY || b == TypingProfile.OTHER_KEY) {
+                return -1;
+            }
+            return TypingProfile.bigramIndex(a, b);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package src;
+
+import java.util.Random;
+
+/**
+ * Samples indices in proportion to their weights in O(1) (Vose's alias
+ * method). Building the table is O(n); the arrays are reused between
+ * rebuilds so changing the weights doesn't allocate.
+ */
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+    private final int[] small;
+    private final int[] large;
+    private final double[] scaled;
+    private int size;
+
+    public AliasTable(int capacity) {
+        probability = new double[capacity];
+        alias = new int[capacity];
+        small = new int[capacity];
+        large = new int[capacity];
+        scaled = new double[capacity];
+    }
+
+    /**
+     * Rebuild from the first count weights. Negative weights count as zero;
+     * if every weight is zero the table samples uniformly.
+     */
+    public void rebuild(double[] weights, int count) {
+        if (count <= 0 || count > probability.length) {
+            throw new IllegalArgumentException("Weight count " + count + " out of range");
+        }
+        size = count;
+
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += Math.max(0, weights[i]);
+        }
+
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < count; i++) {
+            scaled[i] = total > 0 ? Math.max(0, weights[i]) * count / total : 1.0;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // Pair each under-full slot with an over-full one that tops it up
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int sample(Random random) {
+        int slot = random.nextInt(size);
+        return random.nextDouble() < probability[slot] ? slot : alias[slot];
+    }
+}
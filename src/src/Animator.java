@@ -0,0 +1,346 @@
+package src;
+
+import javax.swing.*;
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+
+/**
+ * One 60 Hz frame clock on the EDT for every animation in the game: tweens,
+ * repeating steps, one-off delays and timelines made of those.
+ *
+ * Each frame advances every running animation and then repaints each
+ * component they changed once, so several effects on the same panel cost a
+ * single repaint. The clock's timer only runs while something is animating.
+ * Everything here must be used on the EDT.
+ *
+ *   Animator.tween(1000, Animator.Easing.EASE_OUT, 0, 1, value -> alpha = (float) value)
+ *           .repaints(panel)
+ *           .onComplete(this::next)
+ *           .start();
+ */
+public final class Animator {
+    public static final int FRAME_MILLIS = 16; // about 60 fps
+
+    // A late repeating step is caught up at most this many periods in one frame
+    private static final int MAX_CATCH_UP = 4;
+
+    private static final List<Animation> RUNNING = new ArrayList<>();
+    private static final Set<Component> DIRTY = new LinkedHashSet<>();
+    private static final Timer FRAME_TIMER = new Timer(FRAME_MILLIS, e -> frame());
+    private static long frameCount;
+
+    private Animator() {
+    }
+
+    /**
+     * Shapes a tween's progress; all map 0 to 0 and 1 to 1
+     */
+    public enum Easing {
+        LINEAR,
+        EASE_IN,
+        EASE_OUT,
+        EASE_IN_OUT;
+
+        public double apply(double t) {
+            switch (this) {
+                case EASE_IN:
+                    return t * t;
+                case EASE_OUT:
+                    return t * (2 - t);
+                case EASE_IN_OUT:
+                    return t < 0.5 ? 2 * t * t : -1 + (4 - 2 * t) * t;
+                default:
+                    return t;
+            }
+        }
+    }
+
+    /**
+     * Something the clock advances once per frame. Create one with the
+     * factory methods, set it up, then start() it.
+     */
+    public abstract static class Animation {
+        private final List<Runnable> completionActions = new ArrayList<>(1);
+        private final List<Component> repaintTargets = new ArrayList<>(1);
+        private boolean started;
+        private boolean done;
+        private boolean cancelled;
+
+        /**
+         * Repaint this component on frames where the animation changes something
+         */
+        public Animation repaints(Component component) {
+            repaintTargets.add(component);
+            return this;
+        }
+
+        /**
+         * Run when the animation finishes (not when it is cancelled)
+         */
+        public Animation onComplete(Runnable action) {
+            completionActions.add(action);
+            return this;
+        }
+
+        public Animation start() {
+            if (!started && !done) {
+                started = true;
+                begin(now());
+                RUNNING.add(this);
+                if (!FRAME_TIMER.isRunning()) {
+                    FRAME_TIMER.start();
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Stop where it is, without running completion actions
+         */
+        public void cancel() {
+            if (!done) {
+                done = true;
+                cancelled = true;
+                RUNNING.remove(this);
+            }
+        }
+
+        public boolean isRunning() {
+            return started && !done;
+        }
+
+        /**
+         * Finished or cancelled
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        protected void begin(long now) {
+        }
+
+        /**
+         * Advance to now; false once finished
+         */
+        protected abstract boolean step(long now);
+
+        /**
+         * Ask for this frame's repaint of the targets
+         */
+        protected final void changed() {
+            DIRTY.addAll(repaintTargets);
+        }
+
+        private void complete() {
+            done = true;
+            for (Runnable action : completionActions) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * A value moving from one number to another over a fixed time
+     */
+    public static Animation tween(int durationMillis, Easing easing, double from, double to, DoubleConsumer apply) {
+        return new Animation() {
+            private long startMillis;
+
+            @Override
+            protected void begin(long now) {
+                startMillis = now;
+            }
+
+            @Override
+            protected boolean step(long now) {
+                double t = durationMillis <= 0 ? 1 : Math.min(1, (double) (now - startMillis) / durationMillis);
+                apply.accept(from + (to - from) * easing.apply(t));
+                changed();
+                return t < 1;
+            }
+        };
+    }
+
+    /**
+     * Run step on the first frame and then every periodMillis until it
+     * returns false. Periods shorter than a frame run several times a frame.
+     */
+    public static Animation every(int periodMillis, BooleanSupplier step) {
+        int period = Math.max(1, periodMillis);
+        return new Animation() {
+            private long dueMillis;
+
+            @Override
+            protected void begin(long now) {
+                dueMillis = now;
+            }
+
+            @Override
+            protected boolean step(long now) {
+                int runs = 0;
+                while (dueMillis <= now) {
+                    changed();
+                    if (!step.getAsBoolean() || isDone()) {
+                        return false;
+                    }
+                    if (++runs < MAX_CATCH_UP) {
+                        dueMillis += period;
+                    } else {
+                        // Too far behind; carry on from now rather than replay the backlog
+                        dueMillis = now + period;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Run action once, delayMillis after starting
+     */
+    public static Animation after(int delayMillis, Runnable action) {
+        return new Animation() {
+            private long dueMillis;
+
+            @Override
+            protected void begin(long now) {
+                dueMillis = now + delayMillis;
+            }
+
+            @Override
+            protected boolean step(long now) {
+                if (now < dueMillis) {
+                    return true;
+                }
+                changed();
+                action.run();
+                return false;
+            }
+        };
+    }
+
+    public static Timeline timeline() {
+        return new Timeline();
+    }
+
+    /**
+     * Animations played one after another. Each one's completion actions run
+     * as it finishes; the timeline's own run after the last.
+     */
+    public static class Timeline extends Animation {
+        private final List<Animation> parts = new ArrayList<>();
+        private int current;
+
+        public Timeline then(Animation part) {
+            parts.add(part);
+            return this;
+        }
+
+        public Timeline thenWait(int millis) {
+            return then(after(millis, () -> { }));
+        }
+
+        public Timeline thenRun(Runnable action) {
+            return then(after(0, action));
+        }
+
+        @Override
+        protected void begin(long now) {
+            current = 0;
+            if (!parts.isEmpty()) {
+                parts.get(0).begin(now);
+            }
+        }
+
+        @Override
+        protected boolean step(long now) {
+            while (current < parts.size()) {
+                Animation part = parts.get(current);
+                if (part.step(now)) {
+                    return true;
+                }
+                part.complete();
+                if (isDone()) {
+                    return false;
+                }
+                current++;
+                if (current < parts.size()) {
+                    // The next part starts where the last one ended
+                    parts.get(current).begin(now);
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void cancel() {
+            if (current < parts.size()) {
+                parts.get(current).cancel();
+            }
+            super.cancel();
+        }
+    }
+
+    public static boolean isIdle() {
+        return RUNNING.isEmpty();
+    }
+
+    public static int getRunningCount() {
+        return RUNNING.size();
+    }
+
+    /**
+     * Frames run since startup, for diagnostics
+     */
+    public static long getFrameCount() {
+        return frameCount;
+    }
+
+    private static void frame() {
+        frameCount++;
+        long now = now();
+        try {
+            // Animations may start or cancel others, so work from a copy
+            for (Animation animation : new ArrayList<>(RUNNING)) {
+                if (animation.isDone()) {
+                    continue;
+                }
+                try {
+                    if (!animation.step(now) && !animation.isDone()) {
+                        RUNNING.remove(animation);
+                        animation.complete();
+                    }
+                } catch (RuntimeException e) {
+                    // Drop the broken animation; the clock keeps going for the rest
+                    System.err.println("Animation failed, cancelling it: " + e);
+                    e.printStackTrace();
+                    animation.cancel();
+                    RUNNING.remove(animation);
+                }
+            }
+
+            // One repaint per component however many animations touched it
+            for (Component component : DIRTY) {
+                component.repaint();
+            }
+        } finally {
+            DIRTY.clear();
+            if (RUNNING.isEmpty()) {
+                FRAME_TIMER.stop();
+            }
+        }
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
@@ -0,0 +1,156 @@
+package src;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the game's images and font in parallel at startup, while the title
+ * screen is showing, so scenes get ready-made objects instead of reading
+ * files when they open.
+ *
+ * Every asset the scenes use is listed here, along with the sprites for the
+ * first few monsters of the session (the encounters are seeded, so which
+ * ones come first is known up front). Asking for an image that is still
+ * loading waits for it; asking for one that was never listed loads it on
+ * the spot.
+ */
+public class AssetLoader {
+    /**
+     * Told on the EDT each time an asset finishes
+     */
+    public interface ProgressListener {
+        void progress(int loaded, int total);
+    }
+
+    // Every image the scenes use, roughly in the order they're needed
+    private static final String[] IMAGES = {
+            "/resources/welcomeGame.png",
+            "/resources/cinnarration.png",
+            "/resources/assets/cinnaSprite.png",
+            "/resources/assets/yesButton.png",
+            "/resources/assets/noButton.png",
+            "/resources/assets/inputBox.png",
+            "/resources/screenOverlay.png",
+            "/resources/assets/battleButton.png"
+    };
+
+    // Monster sprites to have ready: this many encounters from the start of the session
+    private static final int PRELOADED_ENCOUNTERS = 3;
+
+    private static final Map<String, CompletableFuture<ImageIcon>> IMAGE_CACHE = new ConcurrentHashMap<>();
+    private static final List<ProgressListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger LOADED = new AtomicInteger();
+    private static volatile int total;
+    private static boolean started;
+
+    /**
+     * Start loading everything in the background; returns straight away.
+     * Only the first call does anything.
+     */
+    public static synchronized void preload() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+        tasks.add(CompletableFuture.runAsync(FontLoader::loadFonts, workers));
+        for (String path : IMAGES) {
+            CompletableFuture<ImageIcon> image = CompletableFuture.supplyAsync(() -> decode(path), workers);
+            IMAGE_CACHE.putIfAbsent(path, image);
+            tasks.add(image);
+        }
+
+        // The first battles are at level 1, so their monsters are always green
+        GameRandom random = GameRandom.session();
+        long firstEncounter = random.getEncounterCount();
+        for (int i = 0; i < PRELOADED_ENCOUNTERS; i++) {
+            String name = Monster.nameFor(random, firstEncounter + i);
+            tasks.add(MonsterImageLoader.getSprite(name, Monster.MonsterType.GREEN, MonsterImageLoader.DEFAULT_SIZE));
+        }
+
+        total = tasks.size();
+        for (CompletableFuture<?> task : tasks) {
+            task.whenComplete((result, error) -> reportProgress(LOADED.incrementAndGet()));
+        }
+        // Threads finish what was queued and then exit
+        workers.shutdown();
+    }
+
+    /**
+     * Get told how loading is going, starting with where it is now
+     */
+    public static void addProgressListener(ProgressListener listener) {
+        LISTENERS.add(listener);
+        int loaded = LOADED.get();
+        SwingUtilities.invokeLater(() -> listener.progress(loaded, total));
+    }
+
+    public static void removeProgressListener(ProgressListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    public static boolean isDone() {
+        return total > 0 && LOADED.get() >= total;
+    }
+
+    /**
+     * An image resource, waiting for it if it's still loading. Null if it
+     * doesn't exist or can't be read.
+     */
+    public static ImageIcon getImage(String path) {
+        CompletableFuture<ImageIcon> image = IMAGE_CACHE.get(path);
+        if (image == null) {
+            CompletableFuture<ImageIcon> loading = new CompletableFuture<>();
+            image = IMAGE_CACHE.putIfAbsent(path, loading);
+            if (image == null) {
+                loading.complete(decode(path));
+                image = loading;
+            }
+        }
+        return image.join();
+    }
+
+    private static void reportProgress(int loaded) {
+        SwingUtilities.invokeLater(() -> {
+            for (ProgressListener listener : LISTENERS) {
+                listener.progress(loaded, total);
+            }
+        });
+    }
+
+    private static ImageIcon decode(String path) {
+        URL url = AssetLoader.class.getResource(path);
+        if (url == null) {
+            System.err.println("Couldn't find file: " + path);
+            return null;
+        }
+        try {
+            BufferedImage image = ImageIO.read(url);
+            return image == null ? null : new ImageIcon(image);
+        } catch (IOException e) {
+            System.err.println("Error loading image: " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package src;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Scores many (target, input) typing attempts at once.
+ *
+ * Accuracies are written straight into a double[] using the same formula as
+ * a battle submission, without building a TypingResult per attempt. The
+ * work is split across cores with fork/join; each piece builds match masks
+ * for the targets it meets and keeps the last few, so repeated targets
+ * share them without the whole batch's masks ever being held at once.
+ */
+public class BatchScorer {
+    // Below this many attempts a task scores its range directly
+    private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+    // Distinct targets whose masks one range keeps at a time (about 2 KB each up to 64 chars)
+    private static final int PATTERN_CACHE_SIZE = 64;
+
+    // Attempts read from a stream before scoring them
+    private static final int STREAM_CHUNK = 1 << 16;
+
+    private final ForkJoinPool pool;
+
+    public BatchScorer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchScorer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * One typing attempt, for stream input
+     */
+    public static class TypingPair {
+        private final String target;
+        private final String input;
+
+        public TypingPair(String target, String input) {
+            this.target = target;
+            this.input = input;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public String getInput() {
+            return input;
+        }
+    }
+
+    /**
+     * Accuracy of inputs[i] against targets[i], for every i
+     */
+    public double[] score(String[] targets, String[] inputs) {
+        double[] accuracies = new double[inputs.length];
+        score(targets, inputs, accuracies);
+        return accuracies;
+    }
+
+    /**
+     * Accuracy of inputs[i] against targets[i], written to accuracies[i]
+     */
+    public void score(String[] targets, String[] inputs, double[] accuracies) {
+        if (targets.length != inputs.length || accuracies.length < inputs.length) {
+            throw new IllegalArgumentException("targets, inputs and accuracies must line up");
+        }
+        run(targets, null, inputs, accuracies, inputs.length);
+    }
+
+    /**
+     * Accuracy of every input against one shared target, such as a whole
+     * lobby typing the same challenge
+     */
+    public double[] scoreAgainst(String target, String[] inputs) {
+        double[] accuracies = new double[inputs.length];
+        scoreAgainst(target, inputs, accuracies);
+        return accuracies;
+    }
+
+    /**
+     * Accuracy of every input against one shared target, written to accuracies[i]
+     */
+    public void scoreAgainst(String target, String[] inputs, double[] accuracies) {
+        if (accuracies.length < inputs.length) {
+            throw new IllegalArgumentException("accuracies is shorter than inputs");
+        }
+        run(null, new MyersPattern(target), inputs, accuracies, inputs.length);
+    }
+
+    /**
+     * Accuracies for a stream of attempts, in encounter order. The stream is
+     * read and scored STREAM_CHUNK attempts at a time, so only the results
+     * are ever held for the whole stream.
+     */
+    public double[] score(Stream<TypingPair> pairs) {
+        String[] targets = new String[STREAM_CHUNK];
+        String[] inputs = new String[STREAM_CHUNK];
+        double[] chunkAccuracies = new double[STREAM_CHUNK];
+        double[] accuracies = new double[0];
+        int scored = 0;
+
+        Iterator<TypingPair> iterator = pairs.iterator();
+        while (iterator.hasNext()) {
+            int count = 0;
+            while (count < STREAM_CHUNK && iterator.hasNext()) {
+                TypingPair pair = iterator.next();
+                targets[count] = pair.getTarget();
+                inputs[count] = pair.getInput();
+                count++;
+            }
+            run(targets, null, inputs, chunkAccuracies, count);
+
+            if (accuracies.length < scored + count) {
+                accuracies = Arrays.copyOf(accuracies, Math.max(scored + count, accuracies.length * 2));
+            }
+            System.arraycopy(chunkAccuracies, 0, accuracies, scored, count);
+            scored += count;
+        }
+        return accuracies.length == scored ? accuracies : Arrays.copyOf(accuracies, scored);
+    }
+
+    /**
+     * Score the first count attempts, against targets[i] or, if targets is
+     * null, all against shared
+     */
+    private void run(String[] targets, MyersPattern shared, String[] inputs, double[] accuracies, int count) {
+        if (count <= SEQUENTIAL_THRESHOLD) {
+            scoreRange(targets, shared, inputs, accuracies, 0, count);
+        } else {
+            pool.invoke(new ScoreTask(targets, shared, inputs, accuracies, 0, count));
+        }
+    }
+
+    private static void scoreRange(String[] targets, MyersPattern shared, String[] inputs, double[] accuracies,
+                                   int from, int to) {
+        // Scratch for long targets, reused for the whole range
+        long[] scratch = new long[0];
+        // Patterns for the targets this range has met recently. Only this
+        // range holds them, so memory stays flat however many distinct
+        // targets the whole batch has.
+        Map<String, MyersPattern> patterns = targets == null ? null : new PatternCache();
+
+        for (int i = from; i < to; i++) {
+            MyersPattern pattern = shared != null ? shared : patterns.computeIfAbsent(targets[i], MyersPattern::new);
+            String input = inputs[i];
+
+            if (scratch.length < 2 * pattern.getBlocks()) {
+                scratch = new long[2 * pattern.getBlocks()];
+            }
+
+            int distance = pattern.distance(input, scratch);
+            accuracies[i] = EditDistance.accuracy(distance, Math.max(input.length(), pattern.length()));
+        }
+    }
+
+    /**
+     * The most recently used patterns of one range, up to PATTERN_CACHE_SIZE
+     */
+    private static class PatternCache extends LinkedHashMap<String, MyersPattern> {
+        PatternCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MyersPattern> eldest) {
+            return size() > PATTERN_CACHE_SIZE;
+        }
+    }
+
+    /**
+     * Splits a range of attempts in half until it is small enough to score directly
+     */
+    private static class ScoreTask extends RecursiveAction {
+        private final String[] targets;
+        private final MyersPattern shared;
+        private final String[] inputs;
+        private final double[] accuracies;
+        private final int from;
+        private final int to;
+
+        ScoreTask(String[] targets, MyersPattern shared, String[] inputs, double[] accuracies, int from, int to) {
+            this.targets = targets;
+            this.shared = shared;
+            this.inputs = inputs;
+            this.accuracies = accuracies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                scoreRange(targets, shared, inputs, accuracies, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScoreTask(targets, shared, inputs, accuracies, from, middle),
+                    new ScoreTask(targets, shared, inputs, accuracies, middle, to));
+        }
+    }
+}
@@ -0,0 +1,563 @@
+package src;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active-rendering view of a battle: the sprite, both health bars, the
+ * challenge, timer, live score, flash effect and the three move buttons are
+ * drawn straight into a page-flipped BufferStrategy by a render thread of
+ * its own, instead of going through Swing's repaint manager. Only the
+ * typing field stays a Swing component.
+ *
+ * Frames start on a fixed schedule (the fps cap, 60 by default, or
+ * kryptokey.fpsCap): the thread sleeps until shortly before each frame's
+ * start time and spins the rest, and a frame that runs late moves the
+ * schedule on instead of rendering a burst to catch up. Frame intervals and
+ * render times are kept in histograms; getFrameStats() summarises them and
+ * the F3 overlay shows them live.
+ *
+ * Turned on with -Dkryptokey.activeRendering=true. The setters are called
+ * on the EDT; everything they set is read by the render thread.
+ */
+public class BattleCanvas extends Canvas {
+    public static final String[] BUTTON_LABELS = {"Attack!", "Use Potion", "Flee Battle"};
+
+    // Histogram bins are 10 us; anything from 200 ms up shares the last bin
+    private static final int BIN_NANOS = 10_000;
+    private static final int MAX_BIN = 20_000;
+
+    // Sleep until this close to a frame's start, then spin for accuracy
+    private static final long SPIN_NANOS = 1_000_000;
+
+    private static final int FLASH_PHASE_NANOS = 100_000_000;
+    private static final int FLASH_PHASES = 6;
+
+    private static final int PLAYER_COLUMN = 150;
+    private static final int BUTTON_HEIGHT = 44;
+    private static final Color PLAYER_HEALTH_COLOR = new Color(0, 200, 0);
+    private static final Color BUTTON_COLOR = new Color(0xeeeeee);
+    private static final Color HOVER_COLOR = new Color(255, 255, 255, 80);
+
+    private final long framePeriodNanos;
+    private final String monsterTitle;
+    private final Color monsterColor;
+    private final Runnable[] buttonActions;
+    private final Image buttonImage;
+    private final Image screenOverlay;
+
+    // Set on the EDT, read by the render thread
+    private volatile BufferedImage sprite;
+    private volatile int monsterHealth;
+    private volatile int monsterMaxHealth;
+    private volatile String playerName = "";
+    private volatile int playerLevel;
+    private volatile int playerHealth;
+    private volatile int playerMaxHealth;
+    private volatile int potionCount;
+    private volatile String challenge = "";
+    private volatile String timeText = "";
+    private volatile String liveScore = "";
+    private volatile Alignment alignment;
+    private volatile long flashStartNanos = -1;
+    private volatile int hoveredButton = -1;
+    private volatile Point screenOrigin = new Point();
+    private volatile GraphicsConfiguration graphicsConfiguration;
+
+    private Thread renderThread;
+    private volatile boolean running;
+
+    // Render thread only
+    private final Histogram frameTimes = new Histogram(MAX_BIN);
+    private final Histogram renderTimes = new Histogram(MAX_BIN);
+    private long framesThisSecond;
+    private long secondStartNanos;
+    private int fps;
+    private BufferedImage scaledSprite;
+    private BufferedImage scaledSpriteSource;
+    private BufferedImage backdrop;
+    private Point backdropOrigin;
+    private BufferedImage buttonFace;
+
+    /**
+     * The typist's last attempt as drawn: the target with typos marked the
+     * same way as TypingAlignment.renderHtml (wrong characters show what was
+     * typed, dropped ones are underscores, extra ones are struck through)
+     */
+    private static final class Alignment {
+        final String shown;
+        final int[] script;
+
+        Alignment(String target, String input, int[] script) {
+            StringBuilder text = new StringBuilder();
+            int t = 0;
+            int i = 0;
+            for (int run : script) {
+                int length = TypingAlignment.length(run);
+                switch (TypingAlignment.op(run)) {
+                    case TypingAlignment.MATCH:
+                        text.append(target, t, t + length);
+                        t += length;
+                        i += length;
+                        break;
+                    case TypingAlignment.SUBSTITUTE:
+                        text.append(input, i, i + length);
+                        t += length;
+                        i += length;
+                        break;
+                    case TypingAlignment.DELETE:
+                        for (int k = 0; k < length; k++) {
+                            text.append('_');
+                        }
+                        t += length;
+                        break;
+                    default:
+                        text.append(input, i, i + length);
+                        i += length;
+                        break;
+                }
+            }
+            this.shown = text.toString();
+            this.script = script;
+        }
+    }
+
+    /**
+     * @param buttonActions run on the EDT when the matching BUTTON_LABELS
+     *                      button is clicked
+     */
+    public BattleCanvas(String monsterTitle, Color monsterColor, Runnable... buttonActions) {
+        this.monsterTitle = monsterTitle;
+        this.monsterColor = monsterColor;
+        this.buttonActions = buttonActions;
+        this.framePeriodNanos = 1_000_000_000L / Math.max(1, Integer.getInteger("kryptokey.fpsCap", 60));
+
+        ImageIcon buttonIcon = AssetLoader.getImage("/resources/assets/battleButton.png");
+        ImageIcon overlayIcon = AssetLoader.getImage("/resources/screenOverlay.png");
+        this.buttonImage = buttonIcon != null ? buttonIcon.getImage() : null;
+        this.screenOverlay = overlayIcon != null ? overlayIcon.getImage() : null;
+
+        setIgnoreRepaint(true);
+        setBackground(Color.BLACK);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int button = buttonAt(e.getX(), e.getY());
+                if (button >= 0 && button < buttonActions.length) {
+                    buttonActions[button].run();
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                hoveredButton = buttonAt(e.getX(), e.getY());
+                setCursor(Cursor.getPredefinedCursor(hoveredButton >= 0 ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                hoveredButton = -1;
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    /**
+     * Whether battles should use this instead of BattlePanel's Swing components
+     */
+    public static boolean isActiveRendering() {
+        return Boolean.getBoolean("kryptokey.activeRendering");
+    }
+
+    public void setSprite(BufferedImage sprite) {
+        this.sprite = sprite;
+    }
+
+    public void setMonsterHealth(int health, int maxHealth) {
+        monsterHealth = health;
+        monsterMaxHealth = maxHealth;
+    }
+
+    public void setPlayer(String name, int level, int health, int maxHealth, int potions) {
+        playerName = name;
+        playerLevel = level;
+        playerHealth = health;
+        playerMaxHealth = maxHealth;
+        potionCount = potions;
+    }
+
+    public void setChallenge(String text) {
+        challenge = text;
+    }
+
+    public void setTimeRemaining(int seconds) {
+        timeText = "Time: " + seconds;
+    }
+
+    /**
+     * Plain text under the challenge, replacing any alignment
+     */
+    public void setLiveScore(String text) {
+        alignment = null;
+        liveScore = text;
+    }
+
+    /**
+     * Show what was typed against the target, from TypingAlignment.align
+     */
+    public void setAlignment(String target, String input, int[] script) {
+        liveScore = "";
+        alignment = new Alignment(target, input, script);
+    }
+
+    /**
+     * Flash red behind the monster, as when it is hit
+     */
+    public void flash() {
+        flashStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        // Taken here: asking for it from the render thread needs the AWT tree lock
+        graphicsConfiguration = getGraphicsConfiguration();
+        createBufferStrategy(2);
+        updateScreenOrigin();
+        running = true;
+        renderThread = new Thread(this::renderLoop, "battle-render");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Stop the render thread and wait for its last frame; called when the
+     * battle ends
+     */
+    public void stop() {
+        running = false;
+        Thread thread = renderThread;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        renderThread = null;
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        updateScreenOrigin();
+    }
+
+    /**
+     * Frame pacing and cost since the canvas started. Only consistent once
+     * stopped, or when read on the render thread.
+     */
+    public String getFrameStats() {
+        return String.format("%d frames, %d fps | frame ms p50 %.2f p95 %.2f p99 %.2f max %.2f | render ms mean %.2f p99 %.2f",
+                renderTimes.getCount(), fps,
+                millis(frameTimes.percentile(0.50)), millis(frameTimes.percentile(0.95)),
+                millis(frameTimes.percentile(0.99)), millis(frameTimes.max()),
+                renderTimes.mean() * BIN_NANOS / 1e6, millis(renderTimes.percentile(0.99)));
+    }
+
+    private static double millis(int bin) {
+        return bin * (double) BIN_NANOS / 1e6;
+    }
+
+    // Where the canvas sits over the game screen, to draw the matching part of it behind the HUD
+    private void updateScreenOrigin() {
+        Container screen = getParent();
+        while (screen != null && !(screen instanceof JLayeredPane)) {
+            screen = screen.getParent();
+        }
+        screenOrigin = screen != null ? SwingUtilities.convertPoint(this, 0, 0, screen) : new Point();
+    }
+
+    private void renderLoop() {
+        long nextFrame = System.nanoTime();
+        long lastFrame = -1;
+        secondStartNanos = nextFrame;
+
+        while (running) {
+            long start = System.nanoTime();
+            if (lastFrame >= 0) {
+                frameTimes.add((int) Math.min(Integer.MAX_VALUE, (start - lastFrame) / BIN_NANOS));
+            }
+            lastFrame = start;
+
+            renderFrame(start);
+            long end = System.nanoTime();
+            renderTimes.add((int) Math.min(Integer.MAX_VALUE, (end - start) / BIN_NANOS));
+
+            framesThisSecond++;
+            if (end - secondStartNanos >= 1_000_000_000L) {
+                fps = (int) framesThisSecond;
+                framesThisSecond = 0;
+                secondStartNanos = end;
+            }
+
+            nextFrame += framePeriodNanos;
+            if (end - nextFrame > framePeriodNanos) {
+                // Fell more than a frame behind: start again from now rather than rush
+                nextFrame = end;
+            }
+            waitUntil(nextFrame);
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (running && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void renderFrame(long now) {
+        BufferStrategy strategy = getBufferStrategy();
+        int width = getWidth();
+        int height = getHeight();
+        if (strategy == null || width <= 0 || height <= 0 || !isShowing()) {
+            return;
+        }
+
+        try {
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        draw(g, width, height, now);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+        } catch (IllegalStateException e) {
+            // The peer went away mid-frame; removeNotify is stopping the loop
+        }
+    }
+
+    private void draw(Graphics2D g, int width, int height, long now) {
+        drawBackdrop(g, width, height);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Monster: name, sprite (flashing red when hit) and health bar
+        g.setColor(Color.BLACK);
+        drawCentered(g, monsterTitle, FontLoader.getVT323(24f), PLAYER_COLUMN, width, 24);
+
+        int spriteSize = Math.max(64, Math.min(MonsterImageLoader.DEFAULT_SIZE, height - 210));
+        int spriteX = PLAYER_COLUMN + (width - PLAYER_COLUMN - spriteSize) / 2;
+        int spriteY = 32;
+        if (isFlashing(now)) {
+            g.setColor(Color.RED);
+            g.fillRect(spriteX, spriteY, spriteSize, spriteSize);
+        }
+        BufferedImage image = scaledSprite(spriteSize);
+        if (image != null) {
+            g.drawImage(image, spriteX, spriteY, null);
+        }
+        int barY = spriteY + spriteSize + 4;
+        drawBar(g, spriteX - 50, barY, spriteSize + 100, 18, monsterHealth, monsterMaxHealth, monsterColor);
+
+        // Player column
+        g.setColor(Color.BLACK);
+        g.setFont(FontLoader.getVT323(24f));
+        g.drawString(playerName, 10, 60);
+        g.setFont(FontLoader.getVT323(14f));
+        g.drawString("Level: " + playerLevel, 10, 110);
+        drawBar(g, 10, 140, PLAYER_COLUMN - 20, 18, playerHealth, playerMaxHealth, PLAYER_HEALTH_COLOR);
+        g.setColor(Color.BLACK);
+        g.setFont(FontLoader.getVT323(14f));
+        g.drawString("Potions: " + potionCount, 10, 200);
+
+        // Challenge, timer and live score
+        String text = challenge;
+        Font challengeFont = FontLoader.getVT323(text.length() >= 30 ? 24f : 30f);
+        int challengeY = barY + 18 + 34;
+        drawCentered(g, text, challengeFont, PLAYER_COLUMN, width, challengeY);
+        drawCentered(g, timeText, FontLoader.getVT323(18f), PLAYER_COLUMN, width, challengeY + 22);
+        Alignment typed = alignment;
+        if (typed != null) {
+            drawAlignment(g, typed, FontLoader.getVT323(18f), PLAYER_COLUMN, width, challengeY + 44);
+        } else {
+            drawCentered(g, liveScore, FontLoader.getVT323(18f), PLAYER_COLUMN, width, challengeY + 44);
+        }
+
+        drawButtons(g, width, height);
+
+        RepaintTracker tracker = RepaintTracker.get();
+        if (tracker != null && tracker.isOverlay()) {
+            String stats = getFrameStats();
+            g.setFont(FontLoader.getVT323(14f));
+            int statsWidth = g.getFontMetrics().stringWidth(stats) + 8;
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, statsWidth, 18);
+            g.setColor(Color.WHITE);
+            g.drawString(stats, 4, 13);
+        }
+    }
+
+    private void drawBackdrop(Graphics2D g, int width, int height) {
+        Point origin = screenOrigin;
+        if (screenOverlay == null) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, width, height);
+            return;
+        }
+        // Cut the part of the game screen under the canvas once per size and position
+        if (backdrop == null || backdrop.getWidth() != width || backdrop.getHeight() != height
+                || !origin.equals(backdropOrigin)) {
+            backdrop = graphicsConfiguration.createCompatibleImage(width, height);
+            Graphics2D cut = backdrop.createGraphics();
+            cut.drawImage(screenOverlay, -origin.x, -origin.y, null);
+            cut.dispose();
+            backdropOrigin = origin;
+        }
+        g.drawImage(backdrop, 0, 0, null);
+    }
+
+    private BufferedImage scaledSprite(int size) {
+        BufferedImage source = sprite;
+        if (source == null) {
+            return null;
+        }
+        if (source != scaledSpriteSource || scaledSprite.getWidth() != size) {
+            scaledSprite = source.getWidth() == size ? source : MonsterImageLoader.scale(source, size, size);
+            scaledSpriteSource = source;
+        }
+        return scaledSprite;
+    }
+
+    private boolean isFlashing(long now) {
+        long start = flashStartNanos;
+        if (start < 0) {
+            return false;
+        }
+        long phase = (now - start) / FLASH_PHASE_NANOS;
+        return phase < FLASH_PHASES && phase % 2 == 0;
+    }
+
+    private static void drawBar(Graphics2D g, int x, int y, int width, int height, int value, int max, Color color) {
+        g.setColor(Color.LIGHT_GRAY);
+        g.fillRect(x, y, width, height);
+        if (max > 0) {
+            g.setColor(color);
+            g.fillRect(x, y, (int) ((long) width * Math.max(0, value) / max), height);
+        }
+        g.setColor(Color.DARK_GRAY);
+        g.drawRect(x, y, width - 1, height - 1);
+
+        g.setColor(Color.BLACK);
+        g.setFont(FontLoader.getVT323(14f));
+        String text = "HP: " + value + "/" + max;
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, x + (width - metrics.stringWidth(text)) / 2,
+                y + (height - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+    private static void drawCentered(Graphics2D g, String text, Font font, int left, int right, int baseline) {
+        g.setFont(font);
+        int textWidth = g.getFontMetrics().stringWidth(text);
+        g.setColor(Color.BLACK);
+        g.drawString(text, left + (right - left - textWidth) / 2, baseline);
+    }
+
+    private static void drawAlignment(Graphics2D g, Alignment typed, Font font, int left, int right, int baseline) {
+        g.setFont(font);
+        FontMetrics metrics = g.getFontMetrics();
+        int x = left + (right - left - metrics.stringWidth(typed.shown)) / 2;
+        int position = 0;
+        for (int run : typed.script) {
+            int length = TypingAlignment.length(run);
+            int op = TypingAlignment.op(run);
+            String piece = typed.shown.substring(position, position + length);
+            position += length;
+            int pieceWidth = metrics.stringWidth(piece);
+            g.setColor(op == TypingAlignment.MATCH ? Color.BLACK : Color.RED);
+            g.drawString(piece, x, baseline);
+            if (op == TypingAlignment.INSERT) {
+                int strikeY = baseline - metrics.getAscent() / 3;
+                g.drawLine(x, strikeY, x + pieceWidth, strikeY);
+            }
+            x += pieceWidth;
+        }
+    }
+
+    private Rectangle buttonBounds(int index, int width, int height) {
+        int gap = 10;
+        int buttonWidth = (width - gap * (BUTTON_LABELS.length - 1)) / BUTTON_LABELS.length;
+        return new Rectangle(index * (buttonWidth + gap), height - BUTTON_HEIGHT, buttonWidth, BUTTON_HEIGHT);
+    }
+
+    private int buttonAt(int x, int y) {
+        for (int i = 0; i < BUTTON_LABELS.length; i++) {
+            if (buttonBounds(i, getWidth(), getHeight()).contains(x, y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void drawButtons(Graphics2D g, int width, int height) {
+        g.setFont(FontLoader.getVT323(18f));
+        FontMetrics metrics = g.getFontMetrics();
+        int hovered = hoveredButton;
+        for (int i = 0; i < BUTTON_LABELS.length; i++) {
+            Rectangle bounds = buttonBounds(i, width, height);
+            BufferedImage face = buttonFace(bounds.width, bounds.height);
+            if (face != null) {
+                g.drawImage(face, bounds.x, bounds.y, null);
+            } else {
+                g.setColor(BUTTON_COLOR);
+                g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+            }
+            if (i == hovered) {
+                g.setColor(HOVER_COLOR);
+                g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+            }
+            g.setColor(Color.DARK_GRAY);
+            g.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+
+            g.setColor(Color.BLACK);
+            g.drawString(BUTTON_LABELS[i], bounds.x + (bounds.width - metrics.stringWidth(BUTTON_LABELS[i])) / 2,
+                    bounds.y + (bounds.height - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
+    }
+
+    // The button artwork scaled to a button, redone only when the size changes
+    private BufferedImage buttonFace(int width, int height) {
+        if (buttonImage == null) {
+            return null;
+        }
+        if (buttonFace == null || buttonFace.getWidth() != width || buttonFace.getHeight() != height) {
+            buttonFace = graphicsConfiguration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            Graphics2D g = buttonFace.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(buttonImage, 0, 0, width, height, null);
+            g.dispose();
+        }
+        return buttonFace;
+    }
+}
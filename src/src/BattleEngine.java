@@ -0,0 +1,214 @@
+package src;
+
+/**
+ * The battle rules with no console, timers or Swing attached.
+ *
+ * A Typist decides each turn's action and types the challenges, and
+ * everything that happens is reported to an Events sink. BattleLogic plugs
+ * in the console for both; simulations plug in synthetic typists and a
+ * no-op or counting sink and run as fast as the rules can be evaluated.
+ * Rolls come from the current GameRandom session, so a seeded session
+ * replays exactly.
+ */
+public class BattleEngine {
+    public enum Action {
+        ATTACK,
+        POTION
+    }
+
+    /**
+     * Supplies the player's side of a battle
+     */
+    public interface Typist {
+        Action chooseAction(Player player, Monster monster);
+
+        /**
+         * Attempt a challenge within timeLimit seconds
+         */
+        TimedTyping.TypingResult type(String challenge, int timeLimit);
+    }
+
+    /**
+     * Receives what happens in a battle. Every method defaults to doing nothing.
+     */
+    public interface Events {
+        Events NONE = new Events() {};
+
+        default void battleStarted(Player player, Monster monster) {}
+
+        /**
+         * A typed attack; damage is after the player's multiplier and the
+         * monster's remaining health
+         */
+        default void attacked(Player player, Monster monster, String challenge,
+                              TimedTyping.TypingResult result, DamagePerCharacter.HitType hitType,
+                              int damage) {}
+
+        /**
+         * healed is 0 when already at full health
+         */
+        default void potionUsed(Player player, int healed) {}
+
+        default void noPotions(Player player) {}
+
+        default void monsterAttacked(Player player, Monster monster, int damage) {}
+
+        default void victory(Player player, Monster monster, int experience,
+                             String levelUpMessage, boolean droppedPotion) {}
+
+        default void defeat(Player player, Monster monster) {}
+    }
+
+    private final TimedTyping challenges;
+    private final DamagePerCharacter damageCalculator;
+    private int difficulty = 1;
+    private boolean profileRecording;
+
+    // Source of monsters and rolls; the shared session unless set
+    private GameRandom random;
+
+    // Monster stats; the game's current tables unless set
+    private GameTables tables;
+
+    public BattleEngine(TimedTyping challenges, DamagePerCharacter damageCalculator) {
+        this.challenges = challenges;
+        this.damageCalculator = damageCalculator;
+    }
+
+    /**
+     * Difficulty of the next monster; goes up by one after every victory
+     */
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(int difficulty) {
+        this.difficulty = Math.max(1, difficulty);
+    }
+
+    /**
+     * Use a private GameRandom instead of the shared session, so engines on
+     * different threads don't share any state
+     */
+    public void setRandom(GameRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Draw monster stats from these tables instead of the game's current
+     * ones, e.g. one point of a balance sweep
+     */
+    public void setTables(GameTables tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Whether attacks update the player's TypingProfile. Off by default since
+     * aligning every attempt costs more than the rest of a simulated turn.
+     */
+    public void setProfileRecording(boolean profileRecording) {
+        this.profileRecording = profileRecording;
+    }
+
+    /**
+     * Fight one monster of the current difficulty to the end
+     *
+     * @return true if the player won
+     */
+    public boolean runBattle(Player player, Typist typist, Events events) {
+        Monster monster = generateMonster();
+        events.battleStarted(player, monster);
+
+        while (true) {
+            if (typist.chooseAction(player, monster) == Action.POTION) {
+                usePotion(player, events);
+            } else {
+                playerAttack(player, monster, typist, events);
+            }
+
+            if (monster.isDefeated()) {
+                handleVictory(player, monster, events);
+                return true;
+            }
+
+            // Monster attacks player
+            int damage = player.takeDamage(monster.getAttackDamage());
+            events.monsterAttacked(player, monster, damage);
+
+            if (player.isDefeated()) {
+                events.defeat(player, monster);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Battle until the player is defeated or maxBattles have been fought
+     *
+     * @return number of battles won
+     */
+    public int runGame(Player player, Typist typist, Events events, int maxBattles) {
+        int won = 0;
+        for (int i = 0; i < maxBattles && !player.isDefeated(); i++) {
+            if (runBattle(player, typist, events)) {
+                won++;
+            }
+        }
+        return won;
+    }
+
+    /**
+     * Drink a potion, in or out of battle
+     */
+    public void usePotion(Player player, Events events) {
+        if (player.getPotionCount() == 0) {
+            events.noPotions(player);
+            return;
+        }
+        events.potionUsed(player, player.usePotion());
+    }
+
+    private Monster generateMonster() {
+        GameRandom random = this.random != null ? this.random : GameRandom.session();
+        long encounter = random.nextEncounter();
+        GameTables tables = this.tables != null ? this.tables : GameTables.get();
+        return new Monster(Monster.nameFor(random, encounter), difficulty, random, encounter, tables);
+    }
+
+    private void playerAttack(Player player, Monster monster, Typist typist, Events events) {
+        String challenge = challenges.getChallenge(monster.getDifficulty());
+
+        // Half a second per character, at least five seconds
+        int timeLimit = Math.max(challenge.length() / 2, 5);
+        TimedTyping.TypingResult result = typist.type(challenge, timeLimit);
+        if (profileRecording) {
+            player.getTypingProfile().record(challenge, result);
+        }
+
+        if (result.isTimedOut()) {
+            events.attacked(player, monster, challenge, result, DamagePerCharacter.HitType.MISS, 0);
+            return;
+        }
+
+        // Same as calculateDamage, without the result object
+        double accuracy = result.getAccuracy();
+        int damage = damageCalculator.projectDamage(result.getUserInput().length(), accuracy);
+        int finalDamage = (int)(damage * (player.getDamageMultiplier() / 100.0));
+        int actualDamage = monster.takeDamage(finalDamage);
+        events.attacked(player, monster, challenge, result, damageCalculator.getHitType(accuracy), actualDamage);
+    }
+
+    private void handleVictory(Player player, Monster monster, Events events) {
+        int experience = monster.getExpYield();
+        String levelUpMessage = player.addExperience(experience);
+
+        boolean droppedPotion = monster.dropsPotion();
+        if (droppedPotion) {
+            player.addPotion();
+        }
+        events.victory(player, monster, experience, levelUpMessage, droppedPotion);
+
+        // Increase difficulty for next battle
+        difficulty++;
+    }
+}
@@ -1,79 +1,34 @@
 package src;
 
-import java.util.Random;
 import java.util.Scanner;
 
 public class BattleLogic {
     private Player player;
     private TimedTyping typingHandler;
     private DamagePerCharacter damageCalculator;
-    private int currentDifficulty = 1;
     private Scanner scanner;
 
-    private static final String[] MONSTER_NAMES = {
-            "Goblin", "Orc", "Troll", "Skeleton", "Zombie", "Ghost",
-            "Slime", "Bat", "Spider", "Wolf", "Bear", "Snake",
-            "Dragon", "Demon", "Witch", "Warlock", "Banshee", "Ogre"
-    };
+    // Battle rules, with the console as the typist and the event output
+    private BattleEngine engine;
+    private BattleEngine.Typist consoleTypist;
+    private BattleEngine.Events consoleEvents;
 
     // Constructor
     public BattleLogic(Player player) {
         this.player = player;
         this.typingHandler = new TimedTyping();
+        this.typingHandler.setTypingProfile(player.getTypingProfile());
         this.damageCalculator = new DamagePerCharacter();
         this.scanner = new Scanner(System.in);
+        this.engine = new BattleEngine(typingHandler, damageCalculator);
+        this.engine.setProfileRecording(true);
+        this.consoleTypist = new ConsoleTypist();
+        this.consoleEvents = new ConsoleEvents();
     }
 
     // Start a new battle
     public void startBattle() {
-        // Create a monster with current difficulty
-        Monster monster = generateMonster();
-
-        System.out.println("\n==== BATTLE START ====");
-        System.out.println("A " + monster + " appears!");
-        System.out.println(player);
-
-        // Battle loop
-        while (!monster.isDefeated() && !player.isDefeated()) {
-            // Display battle menu
-            displayBattleMenu();
-
-            // Get player choice
-            int choice = getUserChoice(1, 2);
-
-            switch (choice) {
-                case 1:
-                    // Attack monster
-                    playerAttack(monster);
-                    break;
-                case 2:
-                    // Use potion
-                    usePotion();
-                    break;
-            }
-
-            // Check if monster is defeated
-            if (monster.isDefeated()) {
-                handleVictory(monster);
-                break;
-            }
-
-            // Monster attacks player
-            monsterAttack(monster);
-
-            // Check if player is defeated
-            if (player.isDefeated()) {
-                handleDefeat();
-                break;
-            }
-        }
-    }
-
-    // Generate a monster based on current difficulty
-    private Monster generateMonster() {
-        Random rand = new Random();
-        String name = MONSTER_NAMES[rand.nextInt(MONSTER_NAMES.length)];
-        return new Monster(name, currentDifficulty);
+        engine.runBattle(player, consoleTypist, consoleEvents);
     }
 
     // Display battle menu
@@ -100,103 +55,100 @@ public class BattleLogic {
         return choice;
     }
 
-    // Player attacks monster
-    private void playerAttack(Monster monster) {
-        System.out.println("\n--- ATTACK PHASE ---");
-
-        // Get difficulty based on monster level
-        int difficulty = monster.getDifficulty();
-
-        // Get a typing challenge
-        String challenge = typingHandler.getChallenge(difficulty);
-
-        // Calculate time limit based on difficulty
-        int timeLimit = Math.max(challenge.length() / 2, 5);
-
-        // Run the typing challenge
-        TimedTyping.TypingResult result = typingHandler.processInputWithTimer(challenge, timeLimit);
+    /**
+     * The player at the console: menu choices and timed typing from stdin
+     */
+    private class ConsoleTypist implements BattleEngine.Typist {
+        @Override
+        public BattleEngine.Action chooseAction(Player player, Monster monster) {
+            displayBattleMenu();
+            return getUserChoice(1, 2) == 2 ? BattleEngine.Action.POTION : BattleEngine.Action.ATTACK;
+        }
 
-        // Calculate damage
-        DamagePerCharacter.DamageResult damageResult = damageCalculator.calculateDamage(result);
+        @Override
+        public TimedTyping.TypingResult type(String challenge, int timeLimit) {
+            System.out.println("\n--- ATTACK PHASE ---");
+            return typingHandler.processInputWithTimer(challenge, timeLimit);
+        }
+    }
 
-        // Apply player's level damage multiplier
-        int finalDamage = (int)(damageResult.getDamage() * (player.getDamageMultiplier() / 100.0));
+    /**
+     * Prints what happens in battle
+     */
+    private static class ConsoleEvents implements BattleEngine.Events {
+        @Override
+        public void battleStarted(Player player, Monster monster) {
+            System.out.println("\n==== BATTLE START ====");
+            System.out.println("A " + monster + " appears!");
+            System.out.println(player);
+        }
 
-        if (result.isTimedOut()) {
-            System.out.println("You failed to cast your spell in time!");
-            System.out.println("No damage dealt.");
-        } else {
-            // Apply damage to monster
-            int actualDamage = monster.takeDamage(finalDamage);
+        @Override
+        public void attacked(Player player, Monster monster, String challenge,
+                             TimedTyping.TypingResult result, DamagePerCharacter.HitType hitType, int damage) {
+            if (result.isTimedOut()) {
+                System.out.println("You failed to cast your spell in time!");
+                System.out.println("No damage dealt.");
+                return;
+            }
 
             // Show typing accuracy
             System.out.println("Typing Accuracy: " + String.format("%.2f%%", result.getAccuracy()));
 
+            // Show where the typos were
+            if (result.getAccuracy() < 100.0) {
+                int[] script = TypingAlignment.align(challenge, result.getUserInput());
+                System.out.println(TypingAlignment.renderConsole(challenge, result.getUserInput(), script));
+            }
+
             // Show damage dealt
-            System.out.println("You dealt " + actualDamage + " damage!");
-            System.out.println("Hit type: " + damageResult.getHitType());
+            System.out.println("You dealt " + damage + " damage!");
+            System.out.println("Hit type: " + hitType);
             System.out.println(monster.getName() + " HP: " + monster.getHealth() + "/" + monster.getMaxHealth());
         }
-    }
 
-    // Use a potion
-    private void usePotion() {
-        if (player.getPotionCount() == 0) {
-            System.out.println("You don't have any potions!");
-            return;
+        @Override
+        public void potionUsed(Player player, int healed) {
+            if (healed > 0) {
+                System.out.println("You used a potion and restored " + healed + " health!");
+                System.out.println("Your HP: " + player.getHealth() + "/" + player.getMaxHealth());
+            } else {
+                System.out.println("You're already at full health!");
+            }
         }
 
-        // Use a potion (full heal)
-        int healAmount = player.usePotion();
+        @Override
+        public void noPotions(Player player) {
+            System.out.println("You don't have any potions!");
+        }
 
-        if (healAmount > 0) {
-            System.out.println("You used a potion and restored " + healAmount + " health!");
+        @Override
+        public void monsterAttacked(Player player, Monster monster, int damage) {
+            System.out.println("\n--- Monster's Turn ---");
+            System.out.println("The " + monster.getName() + " attacks you for " + damage + " damage!");
             System.out.println("Your HP: " + player.getHealth() + "/" + player.getMaxHealth());
-        } else {
-            System.out.println("You're already at full health!");
         }
-    }
-
-    // Handle victory
-    private void handleVictory(Monster monster) {
-        System.out.println("\n=== VICTORY! ===");
-        System.out.println("You defeated the " + monster.getName() + "!");
-
-        // Award experience
-        int expGained = monster.getExpYield();
-        System.out.println("You gained " + expGained + " experience!");
 
-        String levelUpMessage = player.addExperience(expGained);
-        if (!levelUpMessage.isEmpty()) {
-            System.out.println(levelUpMessage);
+        @Override
+        public void victory(Player player, Monster monster, int experience,
+                            String levelUpMessage, boolean droppedPotion) {
+            System.out.println("\n=== VICTORY! ===");
+            System.out.println("You defeated the " + monster.getName() + "!");
+            System.out.println("You gained " + experience + " experience!");
+            if (!levelUpMessage.isEmpty()) {
+                System.out.println(levelUpMessage);
+            }
+            if (droppedPotion) {
+                System.out.println("The monster dropped a potion!");
+            }
         }
 
-        // Check for potion drop
-        if (monster.dropsPotion()) {
-            player.addPotion();
-            System.out.println("The monster dropped a potion!");
+        @Override
+        public void defeat(Player player, Monster monster) {
+            System.out.println("\n=== DEFEAT ===");
+            System.out.println("You were defeated by the monster!");
+            System.out.println("Game Over");
         }
-
-        // Increase difficulty for next battle
-        currentDifficulty++;
-    }
-
-    // Handle defeat
-    private void handleDefeat() {
-        System.out.println("\n=== DEFEAT ===");
-        System.out.println("You were defeated by the monster!");
-        System.out.println("Game Over");
-    }
-
-    // Monster attacks player
-    private void monsterAttack(Monster monster) {
-        System.out.println("\n--- Monster's Turn ---");
-
-        int damage = monster.getAttackDamage();
-        int actualDamage = player.takeDamage(damage);
-
-        System.out.println("The " + monster.getName() + " attacks you for " + actualDamage + " damage!");
-        System.out.println("Your HP: " + player.getHealth() + "/" + player.getMaxHealth());
     }
 
     // Run a full game with multiple battles
@@ -209,7 +161,7 @@ public class BattleLogic {
         boolean gameRunning = true;
         while (gameRunning && !player.isDefeated()) {
             System.out.println("\n=== MAIN MENU ===");
-            System.out.println("1. Battle Monster (Difficulty: " + currentDifficulty + ")");
+            System.out.println("1. Battle Monster (Difficulty: " + engine.getDifficulty() + ")");
             System.out.println("2. Use Potion");
             System.out.println("3. View Player Stats");
             System.out.println("4. Quit Game");
@@ -222,7 +174,7 @@ public class BattleLogic {
                     startBattle();
                     break;
                 case 2:
-                    usePotion();
+                    engine.usePotion(player, consoleEvents);
                     break;
                 case 3:
                     System.out.println("\n=== PLAYER STATS ===");
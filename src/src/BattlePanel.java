@@ -16,6 +16,7 @@ public class BattlePanel extends JPanel {
     private JLabel challengeLabel;
     private JTextField typingField;
     private JLabel timerLabel;
+    private JLabel liveScoreLabel;
     private JButton attackButton;
     private JButton potionButton;
     private JButton fleeButton;
@@ -26,6 +27,18 @@ public class BattlePanel extends JPanel {
     // For damage calculation
     private TimedTyping typingHandler;
     private DamagePerCharacter damageCalculator;
+    private LiveTypingScorer liveScorer;
+
+    // Next challenges are prepared in the background so a round starts instantly
+    private ChallengePrefetcher challengePrefetcher;
+    private Font challengeFont;
+    private Font longChallengeFont;
+
+    // Flashes and the pauses between turns; cancelled when the battle ends
+    private final SceneClock effects = new SceneClock();
+
+    // Draws the whole battle but the typing field when active rendering is on; null otherwise
+    private BattleCanvas canvas;
 
     // Listener for battle events
     private BattleListener battleListener;
@@ -46,13 +59,20 @@ public class BattlePanel extends JPanel {
         this.monster = monster;
         this.battleListener = listener;
         this.typingHandler = new TimedTyping();
+        this.typingHandler.setTypingProfile(player.getTypingProfile());
         this.damageCalculator = new DamagePerCharacter();
+        this.liveScorer = new LiveTypingScorer(damageCalculator);
+        this.challengePrefetcher = new ChallengePrefetcher(typingHandler, monster.getDifficulty());
 
         setLayout(new BorderLayout(5, 5));
         setOpaque(false);
         setBorder(BorderFactory.createEmptyBorder(10, 40, 10, 10));
 
-        setupUI();
+        if (BattleCanvas.isActiveRendering()) {
+            setupActiveUI();
+        } else {
+            setupUI();
+        }
         //generateTypingChallenge();
     }
 
@@ -79,6 +99,36 @@ public class BattlePanel extends JPanel {
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * Set up the active-rendering UI: a BattleCanvas draws everything except
+     * the typing field
+     */
+    private void setupActiveUI() {
+        canvas = new BattleCanvas(monster.getType().getDisplayName() + " " + monster.getName(),
+                getMonsterColor(monster.getType()),
+                this::generateTypingChallenge, this::usePotion, this::fleeBattle);
+
+        // Cached sprite, or a placeholder until it has decoded
+        int spriteSize = MonsterImageLoader.DEFAULT_SIZE;
+        java.awt.image.BufferedImage sprite =
+                MonsterImageLoader.getCachedSprite(monster.getName(), monster.getType(), spriteSize);
+        if (sprite != null) {
+            canvas.setSprite(sprite);
+        } else {
+            canvas.setSprite(MonsterImageLoader.createColoredPlaceholder(monster.getType(), spriteSize));
+            MonsterImageLoader.getSprite(monster.getName(), monster.getType(), spriteSize)
+                    .thenAccept(canvas::setSprite);
+        }
+
+        showMonsterHealth();
+        showPlayerHealth();
+        canvas.setChallenge(monster.getName() + ": " + monster.getBattleCry());
+        canvas.setTimeRemaining(0);
+
+        add(canvas, BorderLayout.CENTER);
+        add(createTypingField(), BorderLayout.SOUTH);
+    }
+
     /**
      * Create monster panel
      */
@@ -91,16 +141,24 @@ public class BattlePanel extends JPanel {
         nameLabel.setFont(getPixelFont(24));
         nameLabel.setHorizontalAlignment(JLabel.CENTER);
 
-        // Monster image - use our loader
-        ImageIcon monsterImg = MonsterImageLoader.getMonsterImage(monster.getName(), monster.getType());
-        monsterImageLabel = new JLabel(monsterImg);
+        // Monster image - cached sprite, or a placeholder until it has decoded
+        int spriteSize = MonsterImageLoader.DEFAULT_SIZE;
+        java.awt.image.BufferedImage sprite =
+                MonsterImageLoader.getCachedSprite(monster.getName(), monster.getType(), spriteSize);
+        if (sprite != null) {
+            monsterImageLabel = new JLabel(new ImageIcon(sprite));
+        } else {
+            monsterImageLabel = new JLabel(MonsterImageLoader.createPlaceholder(monster.getType(), spriteSize));
+            MonsterImageLoader.getSprite(monster.getName(), monster.getType(), spriteSize)
+                    .thenAccept(image -> SwingUtilities.invokeLater(
+                            () -> monsterImageLabel.setIcon(new ImageIcon(image))));
+        }
         monsterImageLabel.setHorizontalAlignment(JLabel.CENTER);
 
         // Monster health bar
         monsterHealthBar = new JProgressBar(0, monster.getMaxHealth());
-        monsterHealthBar.setValue(monster.getHealth());
         monsterHealthBar.setStringPainted(true);
-        monsterHealthBar.setString("HP: " + monster.getHealth() + "/" + monster.getMaxHealth());
+        showMonsterHealth();
         monsterHealthBar.setForeground(getMonsterColor(monster.getType()));
 
         // Add components
@@ -131,9 +189,8 @@ public class BattlePanel extends JPanel {
 
         // Player health bar
         playerHealthBar = new JProgressBar(0, player.getMaxHealth());
-        playerHealthBar.setValue(player.getHealth());
         playerHealthBar.setStringPainted(true);
-        playerHealthBar.setString("HP: " + player.getHealth() + "/" + player.getMaxHealth());
+        showPlayerHealth();
         playerHealthBar.setForeground(new Color(0, 200, 0));
 
         // Potions
@@ -162,16 +219,18 @@ public class BattlePanel extends JPanel {
         challengeLabel.setFont(getPixelFont(30));
         challengeLabel.setHorizontalAlignment(JLabel.CENTER);
         challengeLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        fixHeight(challengeLabel);
 
         // Timer label
         timerLabel = new JLabel("Time: 0");
         timerLabel.setFont(getPixelFont(18));
         timerLabel.setHorizontalAlignment(JLabel.CENTER);
 
-        // Typing field
-        typingField = new JTextField();
-        typingField.setFont(getPixelFont(18));
-        typingField.addActionListener(e -> submitTyping());
+        // Live accuracy feedback, rescored on every keystroke
+        liveScoreLabel = new JLabel(" ");
+        liveScoreLabel.setFont(getPixelFont(18));
+        liveScoreLabel.setHorizontalAlignment(JLabel.CENTER);
+        fixHeight(liveScoreLabel);
 
         // Top panel for challenge and timer
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -181,11 +240,24 @@ public class BattlePanel extends JPanel {
 
         // Add components
         panel.add(topPanel, BorderLayout.NORTH);
-        panel.add(typingField, BorderLayout.CENTER);
+        panel.add(createTypingField(), BorderLayout.CENTER);
+        panel.add(liveScoreLabel, BorderLayout.SOUTH);
 
         return panel;
     }
 
+    /**
+     * Create the typing field, rescoring the live accuracy on every keystroke
+     */
+    private JTextField createTypingField() {
+        typingField = new JTextField();
+        typingField.setFont(getPixelFont(18));
+        typingField.addActionListener(e -> submitTyping());
+        liveScorer.setScoreListener(scorer -> updateLiveScore());
+        typingField.getDocument().addDocumentListener(liveScorer);
+        return typingField;
+    }
+
     /**
      * Create button panel
      */
@@ -194,7 +266,7 @@ public class BattlePanel extends JPanel {
         panel.setOpaque(false);
 
         // Icon for buttons
-        ImageIcon icon = new ImageIcon("resources/assets/battleButton.png");
+        ImageIcon icon = AssetLoader.getImage("/resources/assets/battleButton.png");
 
         // Attack button
         attackButton = new JButton(icon);
@@ -229,22 +301,19 @@ public class BattlePanel extends JPanel {
         // Enable typing field if disabled
         typingField.setEnabled(true);
 
-        // Generate challenge
-        typingChallenge = typingHandler.getChallenge(monster.getDifficulty());
-        challengeLabel.setText("Enter text:  " + typingChallenge);
-        if(typingChallenge.length() >= 30) {
-            challengeLabel.setFont(getPixelFont(24));
-        } else {
-            challengeLabel.setFont(getPixelFont(30));
-        }
+        // Take the next prepared challenge
+        ChallengePrefetcher.PreparedChallenge challenge = challengePrefetcher.next();
+        typingChallenge = challenge.getText();
+        liveScorer.setTarget(challenge.getPattern());
+        showChallenge("Enter text:  " + typingChallenge, typingChallenge.length() >= 30);
 
         // Clear typing field
         typingField.setText("");
         typingField.requestFocusInWindow();
 
         // Set timer (roughly 1 second per 4 characters, minimum 3 seconds)
-        timeRemaining = Math.max(typingChallenge.length() / 4, 3);
-        timerLabel.setText("Time: " + timeRemaining);
+        timeRemaining = challenge.getTimeLimit();
+        showTimeRemaining();
 
         // Start timer
         startTimer();
@@ -264,7 +333,7 @@ public class BattlePanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 timeRemaining--;
-                timerLabel.setText("Time: " + timeRemaining);
+                showTimeRemaining();
 
                 if (timeRemaining <= 0) {
                     typingTimer.stop();
@@ -287,18 +356,10 @@ public class BattlePanel extends JPanel {
         typingField.setEnabled(false);
 
         // Clear challenge text
-        challengeLabel.setText(". . .");
+        showChallenge(". . .", false);
 
         // Monster attacks after delay
-        Timer attackTimer = new Timer(1500, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                monsterAttack();
-            }
-        });
-
-        attackTimer.setRepeats(false);
-        attackTimer.start();
+        effects.after(1500, this::monsterAttack);
     }
 
     /**
@@ -310,20 +371,30 @@ public class BattlePanel extends JPanel {
             typingTimer.stop();
         }
 
-        // Get input
-        String userInput = typingField.getText();
-
         // Disable typing field temporarily
         typingField.setEnabled(false);
 
         // Clear challenge text
-        challengeLabel.setText(". . .");
+        showChallenge(". . .", false);
+
+        // Accuracy is already up to date from the live scorer
+        double accuracy = liveScorer.getAccuracy();
+
+        // Create typing result, with keystroke timings for the player's typing profile
+        TimedTyping.TypingResult typingResult = liveScorer.toTypingResult();
+
+        // Align once, for both the typo display and the typing profile
+        int[] script = typingChallenge != null
+                ? TypingAlignment.align(typingChallenge, typingResult.getUserInput()) : null;
 
-        // Calculate accuracy
-        double accuracy = calculateAccuracy(userInput, typingChallenge);
+        // Show which characters were wrong, dropped or extra
+        if (script != null && accuracy < 100.0) {
+            showAlignment(typingChallenge, typingResult.getUserInput(), script);
+        } else {
+            showLiveScore(" ");
+        }
 
-        // Create typing result
-        TimedTyping.TypingResult typingResult = new TimedTyping.TypingResult(accuracy, userInput, false);
+        player.getTypingProfile().record(typingChallenge, typingResult, script);
 
         // Calculate damage
         DamagePerCharacter.DamageResult damageResult = damageCalculator.calculateDamage(typingResult);
@@ -335,8 +406,7 @@ public class BattlePanel extends JPanel {
         int actualDamage = monster.takeDamage(finalDamage);
 
         // Update monster health bar
-        monsterHealthBar.setValue(monster.getHealth());
-        monsterHealthBar.setString("HP: " + monster.getHealth() + "/" + monster.getMaxHealth());
+        showMonsterHealth();
 
         // Show result message
         String hitType = damageResult.getHitType().toString();
@@ -351,15 +421,7 @@ public class BattlePanel extends JPanel {
             handleVictory();
         } else {
             // Monster attacks after delay
-            Timer attackTimer = new Timer(1500, new ActionListener() {
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    monsterAttack();
-                }
-            });
-
-            attackTimer.setRepeats(false);
-            attackTimer.start();
+            effects.after(1500, this::monsterAttack);
         }
     }
 
@@ -372,8 +434,7 @@ public class BattlePanel extends JPanel {
         int actualDamage = player.takeDamage(damage);
 
         // Update player health bar
-        playerHealthBar.setValue(player.getHealth());
-        playerHealthBar.setString("HP: " + player.getHealth() + "/" + player.getMaxHealth());
+        showPlayerHealth();
 
         // Show message
         showMessage("The " + monster.getName() + " attacks you for " + actualDamage + " damage!");
@@ -397,23 +458,20 @@ public class BattlePanel extends JPanel {
         int healAmount = player.usePotion();
 
         // Update player health bar
-        playerHealthBar.setValue(player.getHealth());
-        playerHealthBar.setString("HP: " + player.getHealth() + "/" + player.getMaxHealth());
+        showPlayerHealth();
 
         // Show message
         showMessage("You used a potion and restored " + healAmount + " health!");
 
-        // Monster attacks after delay
-        Timer attackTimer = new Timer(1500, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                monsterAttack();
+        // Monster attacks after delay. Like the Timer it replaces, this is
+        // never started, so the monster does not take a turn after a potion.
+        Animator.after(1500, () -> {
+            monsterAttack();
 
-                // Check if player is defeated
-                if (!player.isDefeated()) {
-                    // Generate new challenge
-                    generateTypingChallenge();
-                }
+            // Check if player is defeated
+            if (!player.isDefeated()) {
+                // Generate new challenge
+                generateTypingChallenge();
             }
         });
     }
@@ -424,27 +482,21 @@ public class BattlePanel extends JPanel {
     private void fleeBattle() {
         int DC = (int) (((double) player.getExperience() / (player.getExperience() +
                         player.getHealth())) + player.getLevel() - 0.5) + 7;
-        Timer delay2 = new Timer(1000, e -> monsterAttack());
-        Timer delay = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (UtilFunc.rollD20(DC)) {
-                    endBattle(false);
-                } else {
-                    showMessage("The " + monster.getName() + " stops you from fleeing!");
-                    delay2.setRepeats(false);
-                    delay2.start();
-                }
+        Runnable rollToFlee = () -> {
+            if (UtilFunc.rollD20(DC)) {
+                endBattle(false);
+            } else {
+                showMessage("The " + monster.getName() + " stops you from fleeing!");
+                effects.after(1000, this::monsterAttack);
             }
-        });
+        };
 
         if (JOptionPane.showConfirmDialog(this,
                 "Roll to flee? DC is: " + DC + "/20",
                 "Flee Battle",
                 JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
             showMessage("Rolling to flee...");
-            delay.setRepeats(false);
-            delay.start();
+            effects.after(1000, rollToFlee);
         }
     }
 
@@ -482,21 +534,15 @@ public class BattlePanel extends JPanel {
         }
 
         // Show victory message after delay
-        Timer victoryTimer = new Timer(1500, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                JOptionPane.showMessageDialog(BattlePanel.this,
-                        message.toString(),
-                        "Victory!",
-                        JOptionPane.INFORMATION_MESSAGE);
-
-                // End battle
-                endBattle(true);
-            }
+        effects.after(1500, () -> {
+            JOptionPane.showMessageDialog(BattlePanel.this,
+                    message.toString(),
+                    "Victory!",
+                    JOptionPane.INFORMATION_MESSAGE);
+
+            // End battle
+            endBattle(true);
         });
-
-        victoryTimer.setRepeats(false);
-        victoryTimer.start();
     }
 
     /**
@@ -511,31 +557,20 @@ public class BattlePanel extends JPanel {
         // Show defeat message
         showMessage("Defeat! You were defeated by the " + monster.getName() + "!");
 
-        // Calculate total xp for final score
-        int deathScore = 0;
-        for(int i = player.getLevel(); i > 1; i--) {
-            deathScore += i * i * 20;
-        }
-        deathScore += player.getExperience();
+        // Total xp for final score
+        long finalDeathScore = player.getFinalScore();
 
         // Show defeat message after delay
-        int finalDeathScore = deathScore;
-        Timer defeatTimer = new Timer(2000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                JOptionPane.showMessageDialog(BattlePanel.this,
-                        "You were defeated by the " + monster.getName() + "!\nGame Over\n\n"
-                        + "Final Score:\n" + finalDeathScore,
-                        "Defeat!",
-                        JOptionPane.ERROR_MESSAGE);
-
-                // End battle
-                endBattle(false);
-            }
+        effects.after(2000, () -> {
+            JOptionPane.showMessageDialog(BattlePanel.this,
+                    "You were defeated by the " + monster.getName() + "!\nGame Over\n\n"
+                    + "Final Score:\n" + finalDeathScore,
+                    "Defeat!",
+                    JOptionPane.ERROR_MESSAGE);
+
+            // End battle
+            endBattle(false);
         });
-
-        defeatTimer.setRepeats(false);
-        defeatTimer.start();
     }
 
     /**
@@ -550,30 +585,108 @@ public class BattlePanel extends JPanel {
      * Make monster flash when damaged
      */
     private void flashMonster() {
-        Timer flashTimer = new Timer(100, null);
+        if (canvas != null) {
+            canvas.flash();
+            return;
+        }
+
         final int[] count = {0};
         final Color originalBg = monsterImageLabel.getBackground();
 
-        flashTimer.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (count[0] % 2 == 0) {
-                    monsterImageLabel.setOpaque(true);
-                    monsterImageLabel.setBackground(Color.RED);
-                } else {
-                    monsterImageLabel.setOpaque(false);
-                    monsterImageLabel.setBackground(originalBg);
-                }
+        effects.every(100, () -> {
+            if (count[0] % 2 == 0) {
+                monsterImageLabel.setOpaque(true);
+                monsterImageLabel.setBackground(Color.RED);
+            } else {
+                monsterImageLabel.setOpaque(false);
+                monsterImageLabel.setBackground(originalBg);
+            }
 
-                count[0]++;
-                if (count[0] >= 6) {
-                    flashTimer.stop();
-                    monsterImageLabel.setOpaque(false);
-                }
+            count[0]++;
+            if (count[0] >= 6) {
+                monsterImageLabel.setOpaque(false);
+                return false;
             }
-        });
+            return true;
+        }).repaints(monsterImageLabel);
+    }
+
+    private void showMonsterHealth() {
+        if (canvas != null) {
+            canvas.setMonsterHealth(monster.getHealth(), monster.getMaxHealth());
+        } else {
+            showHealth(monsterHealthBar, monster.getHealth(), monster.getMaxHealth());
+        }
+    }
+
+    private void showPlayerHealth() {
+        if (canvas != null) {
+            canvas.setPlayer(player.getName(), player.getLevel(), player.getHealth(), player.getMaxHealth(),
+                    player.getPotionCount());
+        } else {
+            showHealth(playerHealthBar, player.getHealth(), player.getMaxHealth());
+        }
+    }
+
+    private void showChallenge(String text, boolean longText) {
+        if (canvas != null) {
+            canvas.setChallenge(text);
+            return;
+        }
+        challengeLabel.setText(text);
+        if (challengeFont == null) {
+            challengeFont = getPixelFont(30);
+            longChallengeFont = getPixelFont(24);
+        }
+        challengeLabel.setFont(longText ? longChallengeFont : challengeFont);
+    }
+
+    private void showTimeRemaining() {
+        if (canvas != null) {
+            canvas.setTimeRemaining(timeRemaining);
+        } else {
+            timerLabel.setText("Time: " + timeRemaining);
+        }
+    }
+
+    private void showLiveScore(String text) {
+        if (canvas != null) {
+            canvas.setLiveScore(text);
+        } else {
+            liveScoreLabel.setText(text);
+        }
+    }
+
+    /**
+     * Show which characters were wrong, dropped or extra
+     */
+    private void showAlignment(String target, String input, int[] script) {
+        if (canvas != null) {
+            canvas.setAlignment(target, input, script);
+        } else {
+            liveScoreLabel.setText(TypingAlignment.renderHtml(target, input, script));
+        }
+    }
+
+    /**
+     * Update a health bar; the bar repaints only itself, and only if the
+     * numbers changed
+     */
+    private void showHealth(JProgressBar bar, int health, int maxHealth) {
+        String text = "HP: " + health + "/" + maxHealth;
+        if (bar.getValue() != health || !text.equals(bar.getString())) {
+            bar.setValue(health);
+            bar.setString(text);
+        }
+    }
 
-        flashTimer.start();
+    /**
+     * Pin a label's height to its current one, so new text or a smaller font
+     * repaints the label alone instead of reflowing the panel around it
+     */
+    private static void fixHeight(JLabel label) {
+        Dimension size = label.getPreferredSize();
+        label.setPreferredSize(new Dimension(size.width, size.height));
     }
 
     /**
@@ -584,14 +697,18 @@ public class BattlePanel extends JPanel {
     }
 
     /**
-     * Calculate typing accuracy
+     * Show projected accuracy and damage for the text typed so far
      */
-    private double calculateAccuracy(String input, String target) {
-        int editDistance = UtilFunc.editDistance(input, target);
-        int maxLength = Math.max(input.length(), target.length());
-        if (maxLength == 0) return 0;
+    private void updateLiveScore() {
+        if (typingChallenge == null || !typingField.isEnabled() || liveScorer.getInputLength() == 0) {
+            showLiveScore(" ");
+            return;
+        }
 
-        return (1.0 - (double)editDistance / maxLength) * 100.0;
+        showLiveScore(String.format("%.0f%% - %s (%d dmg)",
+                liveScorer.getAccuracy(),
+                liveScorer.getProjectedHitType(),
+                (int)(liveScorer.getProjectedDamage() * (player.getDamageMultiplier() / 100.0))));
     }
 
     /**
@@ -602,6 +719,16 @@ public class BattlePanel extends JPanel {
             typingTimer.stop();
         }
 
+        effects.stop();
+
+        if (canvas != null) {
+            canvas.stop();
+        }
+
+        if (challengePrefetcher != null) {
+            challengePrefetcher.shutdown();
+        }
+
         if (typingHandler != null) {
             typingHandler.close();
         }
@@ -629,10 +756,6 @@ public class BattlePanel extends JPanel {
      * Get pixel-style font
      */
     private Font getPixelFont(float size) {
-        try {
-            return FontLoader.getVT323(size);
-        } catch (Exception e) {
-            return new Font("Monospaced", Font.PLAIN, (int)size);
-        }
+        return FontLoader.getVT323(size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package src;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prepares the next few typing challenges on a background thread so a new
+ * round can start without generating anything on the EDT.
+ *
+ * Each prepared challenge carries its text, the scorer masks for it and its
+ * time limit. The queue is bounded and refilled after every take. Changing
+ * the difficulty throws away what was prepared for the old one. If the queue
+ * happens to be empty, next() prepares a challenge on the calling thread
+ * rather than waiting.
+ */
+public class ChallengePrefetcher {
+    public static final int DEFAULT_CAPACITY = 3;
+
+    /**
+     * A challenge ready to be shown
+     */
+    public static class PreparedChallenge {
+        private final String text;
+        private final MyersPattern pattern;
+        private final int timeLimit;
+        private final int difficulty;
+        private final int generation;
+
+        private PreparedChallenge(String text, int difficulty, int generation) {
+            this.text = text;
+            this.pattern = new MyersPattern(text);
+            this.timeLimit = timeLimitFor(text);
+            this.difficulty = difficulty;
+            this.generation = generation;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Masks to hand straight to LiveTypingScorer.setTarget
+         */
+        public MyersPattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Seconds allowed to type the challenge
+         */
+        public int getTimeLimit() {
+            return timeLimit;
+        }
+
+        public int getDifficulty() {
+            return difficulty;
+        }
+    }
+
+    private final TimedTyping generator;
+    private final BlockingQueue<PreparedChallenge> ready;
+    private final ExecutorService worker;
+    private final AtomicBoolean refillScheduled = new AtomicBoolean(false);
+
+    // Bumped when the difficulty changes so stale challenges can be recognised
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile int difficulty;
+    private volatile boolean closed;
+
+    public ChallengePrefetcher(TimedTyping generator, int difficulty) {
+        this(generator, difficulty, DEFAULT_CAPACITY);
+    }
+
+    public ChallengePrefetcher(TimedTyping generator, int difficulty, int capacity) {
+        this.generator = generator;
+        this.difficulty = difficulty;
+        this.ready = new ArrayBlockingQueue<>(capacity);
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "challenge-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleRefill();
+    }
+
+    /**
+     * Roughly 1 second per 4 characters, minimum 3 seconds
+     */
+    public static int timeLimitFor(String text) {
+        return Math.max(text.length() / 4, 3);
+    }
+
+    /**
+     * Prepare challenges for a different difficulty from now on
+     */
+    public void setDifficulty(int difficulty) {
+        if (difficulty == this.difficulty) {
+            return;
+        }
+        this.difficulty = difficulty;
+        generation.incrementAndGet();
+        ready.clear();
+        scheduleRefill();
+    }
+
+    /**
+     * Next challenge for the current difficulty. Never waits for the queue
+     * to fill; at worst it waits for the one challenge being made right now.
+     */
+    public PreparedChallenge next() {
+        int current = generation.get();
+        PreparedChallenge challenge = ready.poll();
+        while (challenge != null && challenge.generation != current) {
+            challenge = ready.poll();
+        }
+        if (challenge == null) {
+            challenge = prepare(difficulty, current);
+        }
+        scheduleRefill();
+        return challenge;
+    }
+
+    /**
+     * Number of challenges waiting, for tests and debugging
+     */
+    public int readyCount() {
+        return ready.size();
+    }
+
+    /**
+     * Stop the worker; prepared challenges are dropped
+     */
+    public void shutdown() {
+        closed = true;
+        worker.shutdownNow();
+        ready.clear();
+    }
+
+    private void scheduleRefill() {
+        if (!closed && refillScheduled.compareAndSet(false, true)) {
+            try {
+                worker.execute(this::refill);
+            } catch (RejectedExecutionException e) {
+                // Shut down in the meantime
+            }
+        }
+    }
+
+    private void refill() {
+        refillScheduled.set(false);
+        while (!closed && ready.remainingCapacity() > 0) {
+            int current = generation.get();
+            PreparedChallenge challenge = prepare(difficulty, current);
+            // The difficulty may have changed while this one was being made
+            if (current == generation.get()) {
+                ready.offer(challenge);
+            }
+        }
+    }
+
+    private PreparedChallenge prepare(int difficulty, int generation) {
+        // TimedTyping isn't thread-safe; the worker and a fallback on the EDT take turns
+        String text;
+        synchronized (generator) {
+            text = generator.getChallenge(difficulty);
+        }
+        return new PreparedChallenge(text, difficulty, generation);
+    }
+}
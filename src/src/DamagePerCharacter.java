@@ -1,6 +1,10 @@
 package src;
 
 public class DamagePerCharacter {
+    // Accuracy tiers below a critical hit
+    public static final double NORMAL_THRESHOLD = 70.0;
+    public static final double WEAK_THRESHOLD = 30.0;
+
     private double baseDamagePerChar;
     private double accuracyMultiplier;
     private double criticalThreshold;
@@ -31,6 +35,14 @@ public class DamagePerCharacter {
         int textLength = result.getUserInput().length();
         double accuracy = result.getAccuracy();
 
+        return new DamageResult(projectDamage(textLength, accuracy), getHitType(accuracy));
+    }
+
+    /**
+     * Damage for a given text length and accuracy, without building a TypingResult.
+     * Used for live previews while the player is still typing.
+     */
+    public int projectDamage(int textLength, double accuracy) {
         // Calculate base damage
         double baseDamage = textLength * baseDamagePerChar;
 
@@ -38,30 +50,68 @@ public class DamagePerCharacter {
         double damageWithAccuracy = baseDamage * (accuracy / 100.0) * accuracyMultiplier;
 
         // Determine hit type and final damage
-        HitType hitType;
         double finalDamage;
 
+        switch (getHitType(accuracy)) {
+            case CRITICAL:
+                finalDamage = damageWithAccuracy * criticalMultiplier;
+                break;
+            case NORMAL:
+                finalDamage = damageWithAccuracy;
+                break;
+            case WEAK:
+                finalDamage = damageWithAccuracy * 0.7; // 70% of normal damage
+                break;
+            default:
+                // Glancing hit (barely any damage)
+                finalDamage = damageWithAccuracy * 0.3; // 30% of normal damage
+                break;
+        }
+
+        // Round to nearest integer
+        return (int)Math.round(finalDamage);
+    }
+
+    /**
+     * Hit tier for an accuracy percentage
+     */
+    public HitType getHitType(double accuracy) {
         if (accuracy >= criticalThreshold) {
-            // Critical hit
-            hitType = HitType.CRITICAL;
-            finalDamage = damageWithAccuracy * criticalMultiplier;
-        } else if (accuracy >= 70.0) {
-            // Normal hit
-            hitType = HitType.NORMAL;
-            finalDamage = damageWithAccuracy;
-        } else if (accuracy >= 30.0) {
-            // Weak hit
-            hitType = HitType.WEAK;
-            finalDamage = damageWithAccuracy * 0.7; // 70% of normal damage
-        } else {
-            // Glancing hit (barely any damage)
-            hitType = HitType.GLANCING;
-            finalDamage = damageWithAccuracy * 0.3; // 30% of normal damage
+            return HitType.CRITICAL;
+        } else if (accuracy >= NORMAL_THRESHOLD) {
+            return HitType.NORMAL;
+        } else if (accuracy >= WEAK_THRESHOLD) {
+            return HitType.WEAK;
+        }
+        return HitType.GLANCING;
+    }
+
+    /**
+     * Hit tier for typed input without computing the full edit distance.
+     * The distance is only worked out up to the loosest tier's bound, which
+     * still gives it exactly for every tier above glancing; anything past
+     * that is a glancing hit no matter how bad it gets.
+     */
+    public HitType classifyHit(CharSequence target, CharSequence input) {
+        int maxLength = Math.max(target.length(), input.length());
+        if (maxLength == 0) {
+            return getHitType(0);
         }
 
-        // Round to nearest integer and return
-        int roundedDamage = (int)Math.round(finalDamage);
-        return new DamageResult(roundedDamage, hitType);
+        int bound = EditDistance.maxEditsForAccuracy(maxLength, Math.min(WEAK_THRESHOLD, criticalThreshold));
+        if (bound < 0) {
+            return HitType.GLANCING;
+        }
+
+        int distance = UtilFunc.editDistance(target, input, bound);
+        if (distance > bound) {
+            return HitType.GLANCING;
+        }
+        return getHitType(EditDistance.accuracy(distance, maxLength));
+    }
+
+    public double getCriticalThreshold() {
+        return criticalThreshold;
     }
 
     public int calculateHealing(TimedTyping.TypingResult result) {
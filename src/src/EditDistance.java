@@ -0,0 +1,430 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ * Reusable Levenshtein distance engine.
+ *
+ * Picks the cheapest exact algorithm for the inputs:
+ *  - Myers/Hyyro bit-parallel when the shorter string fits in one 64-bit word
+ *  - the same algorithm over several words (Hyyro's blocked variant) for
+ *    anything longer
+ *  - an Ukkonen band when the caller only cares about distances up to a bound
+ *    and the band is much narrower than the row
+ *
+ * All scratch space lives on the instance and is only grown, never shrunk, so
+ * after warm-up none of the paths allocate. Instances are not thread-safe; use
+ * one per thread (see UtilFunc).
+ */
+public class EditDistance {
+    // Longest pattern the single-word bit-parallel path can hold
+    public static final int BIT_PARALLEL_LIMIT = 64;
+
+    // Match masks for Latin-1 characters, indexed directly by char
+    private final long[] latinMasks = new long[256];
+
+    // Match masks for any other characters in the pattern (at most 64 distinct)
+    private final char[] extraChars = new char[BIT_PARALLEL_LIMIT];
+    private final long[] extraMasks = new long[BIT_PARALLEL_LIMIT];
+    private int extraCount = 0;
+
+    // A band row costs about this many times a word of the blocked path, per cell
+    private static final int BAND_CELLS_PER_WORD = 16;
+
+    // Match masks for the blocked path, one row of blocks per character:
+    // Latin-1 at char * blocks, anything else at slot * blocks
+    private long[] blockLatinMasks = new long[0];
+    private char[] blockExtraChars = new char[0];
+    private long[] blockExtraMasks = new long[0];
+    private int blockExtraCount = 0;
+
+    // Vertical delta vectors for the blocked path
+    private long[] blockPositive = new long[0];
+    private long[] blockNegative = new long[0];
+
+    // Rows for the banded dynamic program
+    private int[] previousRow = new int[0];
+    private int[] currentRow = new int[0];
+
+    /**
+     * Exact edit distance between two strings
+     */
+    public int distance(CharSequence s1, CharSequence s2) {
+        return distance(s1, s2, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Edit distance between two strings, bounded by maxDistance.
+     * Returns the exact distance when it is at most maxDistance, otherwise
+     * any value greater than maxDistance (work stops as soon as that is known).
+     */
+    public int distance(CharSequence s1, CharSequence s2, int maxDistance) {
+        if (maxDistance < 0) {
+            return 0;
+        }
+
+        // Make s1 the shorter one, distance is symmetric
+        if (s1.length() > s2.length()) {
+            CharSequence swap = s1;
+            s1 = s2;
+            s2 = swap;
+        }
+
+        int len1 = s1.length();
+        int len2 = s2.length();
+
+        // Length difference is a lower bound on the distance
+        if (len2 - len1 > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        // Shared prefix and suffix never contribute to the distance
+        int start = 0;
+        while (start < len1 && s1.charAt(start) == s2.charAt(start)) {
+            start++;
+        }
+        int end1 = len1;
+        int end2 = len2;
+        while (end1 > start && s1.charAt(end1 - 1) == s2.charAt(end2 - 1)) {
+            end1--;
+            end2--;
+        }
+
+        int m = end1 - start;
+        int n = end2 - start;
+        if (m == 0) {
+            return n;
+        }
+
+        if (m <= BIT_PARALLEL_LIMIT) {
+            return bitParallelDistance(s1, start, m, s2, start, n, maxDistance);
+        }
+        // The band touches 2k+1 cells per row where the blocked path handles
+        // 64 per word, so it only wins when it is far narrower than the row
+        if (maxDistance < n && (2L * maxDistance + 1) * BAND_CELLS_PER_WORD < m) {
+            return bandedDistance(s1, start, m, s2, start, n, maxDistance);
+        }
+        return blockedDistance(s1, start, m, s2, start, n, maxDistance);
+    }
+
+    /**
+     * Myers' bit-vector algorithm in Hyyro's formulation for global distance.
+     * The pattern (length m <= 64) is encoded as one bit per position.
+     */
+    private int bitParallelDistance(CharSequence pattern, int pStart, int m,
+                                    CharSequence text, int tStart, int n, int maxDistance) {
+        buildMasks(pattern, pStart, m);
+
+        long highBit = 1L << (m - 1);
+        long positive = m == 64 ? -1L : (1L << m) - 1;
+        long negative = 0L;
+        int score = m;
+
+        for (int j = 0; j < n; j++) {
+            long eq = maskFor(text.charAt(tStart + j));
+            long xv = eq | negative;
+            long xh = (((eq & positive) + positive) ^ positive) | eq;
+            long ph = negative | ~(xh | positive);
+            long mh = positive & xh;
+
+            if ((ph & highBit) != 0) {
+                score++;
+            } else if ((mh & highBit) != 0) {
+                score--;
+            }
+
+            // The top row of the matrix grows by one per column, so shift in a 1
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            positive = mh | ~(xv | ph);
+            negative = ph & xv;
+
+            // The score can drop by at most one per remaining column
+            if (score - (n - 1 - j) > maxDistance) {
+                clearMasks(pattern, pStart, m);
+                return maxDistance + 1;
+            }
+        }
+
+        clearMasks(pattern, pStart, m);
+        return score;
+    }
+
+    /**
+     * Myers' algorithm for patterns longer than one word: the column is split
+     * into 64-bit blocks and the horizontal delta is carried from each block
+     * into the next, the same as MyersPattern but on reusable scratch.
+     */
+    private int blockedDistance(CharSequence pattern, int pStart, int m,
+                                CharSequence text, int tStart, int n, int maxDistance) {
+        int blocks = (m + 63) / 64;
+        buildBlockMasks(pattern, pStart, m, blocks);
+        if (blockPositive.length < blocks) {
+            blockPositive = new long[Math.max(blocks, blockPositive.length * 2)];
+            blockNegative = new long[blockPositive.length];
+        }
+        long[] positive = blockPositive;
+        long[] negative = blockNegative;
+
+        int last = blocks - 1;
+        int tailBits = m - last * 64;
+        long highBit = 1L << (tailBits - 1);
+        for (int b = 0; b < blocks; b++) {
+            positive[b] = b < last || tailBits == 64 ? -1L : (1L << tailBits) - 1;
+            negative[b] = 0L;
+        }
+        int score = m;
+
+        for (int j = 0; j < n; j++) {
+            char c = text.charAt(tStart + j);
+            long[] masks;
+            int base;
+            if (c < 256) {
+                masks = blockLatinMasks;
+                base = c * blocks;
+            } else {
+                int slot = findBlockExtra(c);
+                masks = blockExtraMasks;
+                base = slot < 0 ? -1 : slot * blocks;
+            }
+
+            // Horizontal delta entering the top of each block; the top row grows by one
+            int carry = 1;
+            for (int b = 0; b < blocks; b++) {
+                long eq = base < 0 ? 0L : masks[base + b];
+                long pv = positive[b];
+                long mv = negative[b];
+                long xv = eq | mv;
+                if (carry < 0) {
+                    eq |= 1L;
+                }
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+
+                long top = b == last ? highBit : Long.MIN_VALUE;
+                int carryOut = (ph & top) != 0 ? 1 : (mh & top) != 0 ? -1 : 0;
+
+                ph <<= 1;
+                mh <<= 1;
+                if (carry > 0) {
+                    ph |= 1L;
+                } else if (carry < 0) {
+                    mh |= 1L;
+                }
+                positive[b] = mh | ~(xv | ph);
+                negative[b] = ph & xv;
+                carry = carryOut;
+            }
+            score += carry;
+
+            // The score can drop by at most one per remaining column
+            if (score - (n - 1 - j) > maxDistance) {
+                clearBlockMasks(pattern, pStart, m, blocks);
+                return maxDistance + 1;
+            }
+        }
+
+        clearBlockMasks(pattern, pStart, m, blocks);
+        return score;
+    }
+
+    /**
+     * Ukkonen's banded dynamic program: only cells within maxDistance of the
+     * diagonal can hold a value <= maxDistance, so everything else is skipped.
+     * Stops as soon as a whole row exceeds the bound.
+     */
+    private int bandedDistance(CharSequence shorter, int sStart, int m,
+                               CharSequence longer, int lStart, int n, int maxDistance) {
+        int limit = maxDistance + 1;
+        ensureRows(m + 2);
+        int[] prev = previousRow;
+        int[] cur = currentRow;
+
+        int firstHigh = Math.min(m, maxDistance);
+        for (int j = 0; j <= firstHigh; j++) {
+            prev[j] = j;
+        }
+        if (firstHigh + 1 <= m) {
+            prev[firstHigh + 1] = limit;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int low = Math.max(1, i - maxDistance);
+            int high = Math.min(m, i + maxDistance);
+            if (low > high) {
+                return limit;
+            }
+
+            char c = longer.charAt(lStart + i - 1);
+            cur[low - 1] = low == 1 ? Math.min(i, limit) : limit;
+            int rowMin = cur[low - 1];
+
+            for (int j = low; j <= high; j++) {
+                int value = prev[j - 1] + (shorter.charAt(sStart + j - 1) == c ? 0 : 1);
+                value = Math.min(value, prev[j] + 1);
+                value = Math.min(value, cur[j - 1] + 1);
+                if (value > limit) {
+                    value = limit;
+                }
+                cur[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (high + 1 <= m) {
+                cur[high + 1] = limit;
+            }
+
+            if (rowMin > maxDistance) {
+                return limit;
+            }
+
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+
+        return Math.min(prev[m], limit);
+    }
+
+    private void buildMasks(CharSequence pattern, int start, int m) {
+        for (int i = 0; i < m; i++) {
+            char c = pattern.charAt(start + i);
+            long bit = 1L << i;
+            if (c < 256) {
+                latinMasks[c] |= bit;
+            } else {
+                int slot = findExtra(c);
+                if (slot < 0) {
+                    slot = extraCount++;
+                    extraChars[slot] = c;
+                    extraMasks[slot] = 0L;
+                }
+                extraMasks[slot] |= bit;
+            }
+        }
+    }
+
+    private void clearMasks(CharSequence pattern, int start, int m) {
+        // Only touch the entries the pattern set, cheaper than wiping the table
+        for (int i = 0; i < m; i++) {
+            char c = pattern.charAt(start + i);
+            if (c < 256) {
+                latinMasks[c] = 0L;
+            }
+        }
+        extraCount = 0;
+    }
+
+    private long maskFor(char c) {
+        if (c < 256) {
+            return latinMasks[c];
+        }
+        int slot = findExtra(c);
+        return slot < 0 ? 0L : extraMasks[slot];
+    }
+
+    private int findExtra(char c) {
+        for (int i = 0; i < extraCount; i++) {
+            if (extraChars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void buildBlockMasks(CharSequence pattern, int start, int m, int blocks) {
+        if (blockLatinMasks.length < 256 * blocks) {
+            blockLatinMasks = new long[256 * Math.max(blocks, blockLatinMasks.length / 128)];
+        }
+        for (int i = 0; i < m; i++) {
+            char c = pattern.charAt(start + i);
+            long bit = 1L << i;
+            int block = i >>> 6;
+            if (c < 256) {
+                blockLatinMasks[c * blocks + block] |= bit;
+            } else {
+                int slot = findBlockExtra(c);
+                if (slot < 0) {
+                    slot = addBlockExtra(c, blocks);
+                }
+                blockExtraMasks[slot * blocks + block] |= bit;
+            }
+        }
+    }
+
+    private int addBlockExtra(char c, int blocks) {
+        int slot = blockExtraCount++;
+        if (blockExtraChars.length <= slot) {
+            blockExtraChars = Arrays.copyOf(blockExtraChars, Math.max(16, slot * 2));
+        }
+        if (blockExtraMasks.length < (slot + 1) * blocks) {
+            blockExtraMasks = Arrays.copyOf(blockExtraMasks,
+                    Math.max((slot + 1) * blocks, blockExtraMasks.length * 2));
+        }
+        blockExtraChars[slot] = c;
+        Arrays.fill(blockExtraMasks, slot * blocks, (slot + 1) * blocks, 0L);
+        return slot;
+    }
+
+    private void clearBlockMasks(CharSequence pattern, int start, int m, int blocks) {
+        for (int i = 0; i < m; i++) {
+            char c = pattern.charAt(start + i);
+            if (c < 256) {
+                blockLatinMasks[c * blocks + (i >>> 6)] = 0L;
+            }
+        }
+        blockExtraCount = 0;
+    }
+
+    private int findBlockExtra(char c) {
+        for (int i = 0; i < blockExtraCount; i++) {
+            if (blockExtraChars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureRows(int size) {
+        if (previousRow.length < size) {
+            // Grow with headroom so slowly increasing inputs don't reallocate each time
+            int capacity = Math.max(size, previousRow.length * 2);
+            previousRow = new int[capacity];
+            currentRow = new int[capacity];
+        }
+    }
+
+    /**
+     * Largest edit distance that still reaches the given accuracy percentage
+     * for strings whose longer length is maxLength. Uses the same arithmetic as
+     * the accuracy calculation so tier boundaries match exactly.
+     */
+    public static int maxEditsForAccuracy(int maxLength, double accuracyPercent) {
+        if (maxLength == 0) {
+            return accuracyPercent <= 0 ? 0 : -1;
+        }
+        int edits = (int) Math.floor(maxLength * (100.0 - accuracyPercent) / 100.0);
+        edits = Math.max(-1, Math.min(maxLength, edits));
+
+        // Nudge across any floating point rounding at the boundary
+        while (edits + 1 <= maxLength && accuracy(edits + 1, maxLength) >= accuracyPercent) {
+            edits++;
+        }
+        while (edits >= 0 && accuracy(edits, maxLength) < accuracyPercent) {
+            edits--;
+        }
+        return edits;
+    }
+
+    /**
+     * Accuracy percentage for a distance, as used throughout the game
+     */
+    public static double accuracy(int editDistance, int maxLength) {
+        if (maxLength == 0) {
+            return 0;
+        }
+        return (1.0 - (double) editDistance / maxLength) * 100.0;
+    }
+}
@@ -1,17 +1,33 @@
 package src;
 
-import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The game's one source of fonts. The VT323 TTF is parsed once; every size
+ * and style asked for is derived once and cached, along with its metrics, so
+ * painting never reads the font file or builds a new Font.
+ */
 public class FontLoader {
-    private static Font vt323Font;
+    private static volatile Font vt323Font;
 
-    // Call this once at game startup
-    public static void loadFonts() {
-        try {
+    // Derived fonts by (size, style), and metrics by font
+    private static final Map<Long, Font> DERIVED = new ConcurrentHashMap<>();
+    private static final Map<Font, FontMetrics> METRICS = new ConcurrentHashMap<>();
+
+    // Off-screen graphics used only to measure fonts, with Swing's default (identity) rendering context
+    private static Graphics2D measuring;
+
+    // Call this once at game startup (AssetLoader does); later calls do nothing
+    public static synchronized void loadFonts() {
+        if (vt323Font != null) {
+            return;
+        }
+        try (InputStream fontStream = FontLoader.class.getResourceAsStream("/resources/fonts/VT323-Regular.ttf")) {
             // Load from resources folder
-            InputStream fontStream = FontLoader.class.getResourceAsStream("/resources/fonts/VT323-Regular.ttf");
             vt323Font = Font.createFont(Font.TRUETYPE_FONT, fontStream).deriveFont(24f);
 
             // Register the font system-wide
@@ -26,6 +42,48 @@ public class FontLoader {
 
     // Use this to get the font anywhere
     public static Font getVT323(float size) {
-        return vt323Font.deriveFont(size);
+        return getVT323(size, Font.PLAIN);
+    }
+
+    /**
+     * VT323 at a size and style (Font.PLAIN, Font.BOLD, ...), derived on first use
+     */
+    public static Font getVT323(float size, int style) {
+        long key = ((long) Float.floatToIntBits(size) << 32) | (style & 0xFFFFFFFFL);
+        Font font = DERIVED.get(key);
+        if (font == null) {
+            if (vt323Font == null) {
+                loadFonts();
+            }
+            font = DERIVED.computeIfAbsent(key, k -> vt323Font.deriveFont(style, size));
+        }
+        return font;
+    }
+
+    /**
+     * Metrics for VT323 at a size, measured once
+     */
+    public static FontMetrics getVT323Metrics(float size) {
+        return getMetrics(getVT323(size));
+    }
+
+    /**
+     * Metrics for any font, measured once. These match what a component's
+     * Graphics reports without scaling or fractional metrics, which is how
+     * Swing paints.
+     */
+    public static FontMetrics getMetrics(Font font) {
+        FontMetrics metrics = METRICS.get(font);
+        if (metrics == null) {
+            metrics = METRICS.computeIfAbsent(font, FontLoader::measure);
+        }
+        return metrics;
+    }
+
+    private static synchronized FontMetrics measure(Font font) {
+        if (measuring == null) {
+            measuring = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        }
+        return measuring.getFontMetrics(font);
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,6 @@ package src;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.Random;
 
 public class GameGUI {
     private JFrame frame;
@@ -20,18 +19,11 @@ public class GameGUI {
     private String tutorialMessage = "Click the areas on the upper right to select your next move!";
     private String displayedTutorial = "";
     private int tutorialCharIndex = 0;
-    private Timer tutorialTimer;
-
-    // Monster names for generation
-    private static final String[] MONSTER_NAMES = {
-            "Goblin", "Orc", "Troll", "Skeleton", "Zombie", "Ghost",
-            "Slime", "Bat", "Spider", "Wolf", "Bear", "Snake",
-            "Dragon", "Demon", "Witch", "Warlock", "Banshee", "Ogre"
-    };
+    private Animator.Animation tutorialAnimation;
 
     public GameGUI(Player player) {
         this.player = player;
-        this.cinnaIcon = new ImageIcon(getClass().getResource("/resources/assets/cinnaSprite.png"));
+        this.cinnaIcon = AssetLoader.getImage("/resources/assets/cinnaSprite.png");
         initialize();
     }
 
@@ -44,7 +36,7 @@ public class GameGUI {
         JLayeredPane layeredPane = new JLayeredPane();
 
         // Load background image
-        ImageIcon bgIcon = new ImageIcon(getClass().getResource("/resources/screenOverlay.png"));
+        ImageIcon bgIcon = AssetLoader.getImage("/resources/screenOverlay.png");
         JLabel background = new JLabel(bgIcon);
         background.setBounds(0, 0, bgIcon.getIconWidth(), bgIcon.getIconHeight());
         layeredPane.add(background, JLayeredPane.DEFAULT_LAYER);
@@ -59,7 +51,7 @@ public class GameGUI {
 
         // Create tutorial label
         messageLabel = new JLabel();
-        messageLabel.setFont(getVT323Font(38f));
+        messageLabel.setFont(FontLoader.getVT323(38f));
         messageLabel.setForeground(Color.decode("#345f92"));
         messageLabel.setBounds(130, 650, 1000, 40);
         layeredPane.add(messageLabel, JLayeredPane.PALETTE_LAYER);
@@ -112,27 +104,27 @@ public class GameGUI {
     }
 
     private void startTutorialAnimation() {
-        tutorialTimer = new Timer(20, e -> {
+        tutorialAnimation = Animator.every(20, () -> {
             if (tutorialCharIndex < tutorialMessage.length()) {
                 displayedTutorial = tutorialMessage.substring(0, tutorialCharIndex + 1);
                 messageLabel.setText(displayedTutorial);
                 tutorialCharIndex++;
-            } else {
-                ((Timer)e.getSource()).stop();
+                return true;
             }
-        });
-        tutorialTimer.start();
+            return false;
+        }).start();
     }
 
     // Button action methods
     private void startBattle() {
         // Generate a random monster
-        Random rand = new Random();
-        String monsterName = MONSTER_NAMES[rand.nextInt(MONSTER_NAMES.length)];
+        GameRandom random = GameRandom.session();
+        long encounter = random.nextEncounter();
+        String monsterName = Monster.nameFor(random, encounter);
 
         // Create monster with appropriate difficulty
         int difficulty = Math.max(1, player.getLevel());
-        Monster monster = new Monster(monsterName, difficulty);
+        Monster monster = new Monster(monsterName, difficulty, encounter);
 
         // Show battle message
         messageLabel.setText("A " + monster.getType().getDisplayName() + " " +
@@ -211,16 +203,6 @@ public class GameGUI {
         }
     }
 
-    private Font getVT323Font(float size) {
-        try {
-            return Font.createFont(Font.TRUETYPE_FONT,
-                            getClass().getResourceAsStream("/resources/fonts/VT323-Regular.ttf"))
-                    .deriveFont(size);
-        } catch (Exception e) {
-            return new Font("Monospaced", Font.PLAIN, (int)size);
-        }
-    }
-
     public void show() {
         frame.setVisible(true);
     }
@@ -0,0 +1,240 @@
+package src;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The game's source of randomness: one seeded session with an independent
+ * stream per purpose.
+ *
+ * Values are counter based, like SplittableRandom: the n-th value of a
+ * stream is a hash of (seed, purpose, index, n) rather than the result of
+ * stepping a state n times. Any draw of any encounter can be computed
+ * directly in O(1), a seeded run replays exactly, and drawing never
+ * allocates. Encounters are numbered from 0 in the order they start, and
+ * each one has its own streams, so what happens in encounter N doesn't
+ * depend on how many rolls earlier encounters used.
+ *
+ * Set the system property kryptokey.seed to replay a run.
+ */
+public class GameRandom {
+    /**
+     * What a value is used for; each purpose is its own stream
+     */
+    public enum Purpose {
+        ENCOUNTER,      // which monster appears
+        MONSTER_TYPE,   // boss or not
+        MONSTER_ATTACK, // damage variation
+        LOOT,           // potion drops
+        BATTLE_CRY,
+        DICE,           // flee rolls
+        CHALLENGE       // challenge words
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long INDEX_GAMMA = 0xD1B54A32D192ED03L;
+
+    // Index of the session-wide stream of each purpose; encounters use 0 and up
+    private static final long SESSION_INDEX = -1;
+
+    private static volatile GameRandom session = new GameRandom(initialSeed());
+
+    private final long seed;
+    private final long[] purposeKeys = new long[Purpose.values().length];
+    private final AtomicLongArray sessionDraws = new AtomicLongArray(Purpose.values().length);
+    private final AtomicLong encounters = new AtomicLong();
+    private final AtomicLong streams = new AtomicLong();
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        for (Purpose purpose : Purpose.values()) {
+            purposeKeys[purpose.ordinal()] = mix64(seed + GOLDEN_GAMMA * (purpose.ordinal() + 1));
+        }
+    }
+
+    /**
+     * The current session
+     */
+    public static GameRandom session() {
+        return session;
+    }
+
+    /**
+     * Start a new session, e.g. to replay a run from its seed
+     */
+    public static GameRandom startSession(long seed) {
+        session = new GameRandom(seed);
+        return session;
+    }
+
+    private static long initialSeed() {
+        String property = System.getProperty("kryptokey.seed");
+        if (property != null) {
+            try {
+                return Long.parseLong(property.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring bad kryptokey.seed: " + property);
+            }
+        }
+        return mix64(System.nanoTime() ^ System.currentTimeMillis() * GOLDEN_GAMMA);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Number the next encounter
+     */
+    public long nextEncounter() {
+        return encounters.getAndIncrement();
+    }
+
+    /**
+     * Number of encounters started so far
+     */
+    public long getEncounterCount() {
+        return encounters.get();
+    }
+
+    /**
+     * Value number draw of a purpose's stream for one encounter, in [0, bound)
+     */
+    public int intAt(Purpose purpose, long encounter, long draw, int bound) {
+        return bounded(valueAt(key(purpose, encounter), draw), bound);
+    }
+
+    /**
+     * Value number draw of a purpose's stream for one encounter, in [0, 1)
+     */
+    public double doubleAt(Purpose purpose, long encounter, long draw) {
+        return toDouble(valueAt(key(purpose, encounter), draw));
+    }
+
+    /**
+     * Next value in [0, bound) from the session-wide stream of a purpose.
+     * Safe to call from any thread.
+     */
+    public int nextInt(Purpose purpose, int bound) {
+        long draw = sessionDraws.getAndIncrement(purpose.ordinal());
+        return intAt(purpose, SESSION_INDEX, draw, bound);
+    }
+
+    /**
+     * Next value in [0, 1) from the session-wide stream of a purpose
+     */
+    public double nextDouble(Purpose purpose) {
+        long draw = sessionDraws.getAndIncrement(purpose.ordinal());
+        return doubleAt(purpose, SESSION_INDEX, draw);
+    }
+
+    /**
+     * A fresh stream for a component that wants a java.util.Random, such as
+     * a ShuffleBag. Streams are numbered in the order they are created.
+     */
+    public Stream newStream(Purpose purpose) {
+        return new Stream(key(purpose, SESSION_INDEX - 1 - streams.getAndIncrement()));
+    }
+
+    /**
+     * The stream of a purpose for one encounter, as a java.util.Random
+     */
+    public Stream forEncounter(Purpose purpose, long encounter) {
+        return new Stream(key(purpose, encounter));
+    }
+
+    private long key(Purpose purpose, long index) {
+        return mix64(purposeKeys[purpose.ordinal()] + index * INDEX_GAMMA);
+    }
+
+    private static long valueAt(long key, long counter) {
+        return mix64(key + (counter + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Multiply-shift reduction of the high 32 bits; the bias is at most
+     * bound / 2^32, far below anything a game roll can notice
+     */
+    private static int bounded(long value, int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        return (int) (((value >>> 32) * bound) >>> 32);
+    }
+
+    private static double toDouble(long value) {
+        return (value >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * SplitMix64 / SplittableRandom finaliser
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * One counter-based stream behind the java.util.Random interface. Not
+     * thread-safe; give each owner its own.
+     */
+    public static class Stream extends Random {
+        private final long key;
+        private long counter;
+
+        private Stream(long key) {
+            this.key = key;
+        }
+
+        /**
+         * Number of values drawn so far
+         */
+        public long getPosition() {
+            return counter;
+        }
+
+        /**
+         * Jump to any position in O(1)
+         */
+        public void seek(long position) {
+            counter = position;
+        }
+
+        @Override
+        protected int next(int bits) {
+            return (int) (nextLong() >>> (64 - bits));
+        }
+
+        @Override
+        public long nextLong() {
+            return valueAt(key, counter++);
+        }
+
+        @Override
+        public int nextInt() {
+            return (int) (nextLong() >>> 32);
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return bounded(nextLong(), bound);
+        }
+
+        @Override
+        public double nextDouble() {
+            return toDouble(nextLong());
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return nextLong() < 0;
+        }
+
+        @Override
+        public void setSeed(long seed) {
+            // Streams are positioned by seek, not reseeded
+        }
+    }
+}
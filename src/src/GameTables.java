@@ -0,0 +1,306 @@
+package src;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Monster stats and the player's level curve, precomputed into flat arrays
+ * from the numbers in a balance file so the game never recomputes them.
+ *
+ * Monster stats are indexed by (difficulty, type). The level curve keeps a
+ * running total of the experience needed to reach each level, so finding the
+ * level for any amount of experience is a binary search and a final score
+ * is one lookup.
+ *
+ * The balance file is /resources/data/balance.properties, or whatever file
+ * the system property kryptokey.balance names. Keys it leaves out keep the
+ * built-in defaults, which match the original hard-coded formulas.
+ */
+public class GameTables {
+    private static final Monster.MonsterType[] TYPES = Monster.MonsterType.values();
+
+    private static volatile GameTables current;
+
+    // Monster formula, kept to work out difficulties beyond the tables
+    private final int healthBase;
+    private final int healthPerDifficulty;
+    private final int attackBase;
+    private final int attackPerDifficulty;
+    private final double[] healthMultiplier = new double[TYPES.length];
+    private final double[] attackMultiplier = new double[TYPES.length];
+    private final int[] experiencePerDifficulty = new int[TYPES.length];
+    private final double[] dropChance = new double[TYPES.length];
+
+    // [difficulty * TYPES.length + type], difficulty 0 unused
+    private final int tableDifficulties;
+    private final int[] monsterHealth;
+    private final int[] monsterAttack;
+    private final int[] monsterExperience;
+
+    // Indexed by level, 0 unused
+    private final int maxLevel;
+    private final int[] experienceToNext;
+    private final int[] maxHealth;
+    private final int[] damageMultiplier;
+    // Experience needed to reach each level from a fresh level 1 player, up to maxLevel + 1
+    private final long[] experienceToReach;
+
+    private GameTables(Properties values) {
+        healthBase = readInt(values, "monster.health.base", 20);
+        healthPerDifficulty = readInt(values, "monster.health.perDifficulty", 5);
+        attackBase = readInt(values, "monster.attack.base", 5);
+        attackPerDifficulty = readInt(values, "monster.attack.perDifficulty", 2);
+
+        double[] defaultHealth = {1.0, 1.5, 2.0, 3.0};
+        double[] defaultAttack = {1.0, 1.3, 1.6, 2.0};
+        int[] defaultExperience = {10, 15, 25, 50};
+        for (Monster.MonsterType type : TYPES) {
+            int t = type.ordinal();
+            String prefix = "monster." + type.name() + ".";
+            healthMultiplier[t] = readDouble(values, prefix + "health", defaultHealth[t]);
+            attackMultiplier[t] = readDouble(values, prefix + "attack", defaultAttack[t]);
+            experiencePerDifficulty[t] = readInt(values, prefix + "experience", defaultExperience[t]);
+            dropChance[t] = readDouble(values, prefix + "dropChance", type.getBaseDropChance());
+        }
+
+        tableDifficulties = Math.max(1, readInt(values, "monster.tableDifficulties", 200));
+        int cells = (tableDifficulties + 1) * TYPES.length;
+        monsterHealth = new int[cells];
+        monsterAttack = new int[cells];
+        monsterExperience = new int[cells];
+        for (int difficulty = 1; difficulty <= tableDifficulties; difficulty++) {
+            for (int t = 0; t < TYPES.length; t++) {
+                int cell = difficulty * TYPES.length + t;
+                monsterHealth[cell] = computeHealth(difficulty, t);
+                monsterAttack[cell] = computeAttack(difficulty, t);
+                monsterExperience[cell] = experiencePerDifficulty[t] * difficulty;
+            }
+        }
+
+        int perLevelSquared = readInt(values, "player.experience.perLevelSquared", 20);
+        int playerHealthBase = readInt(values, "player.health.base", 100);
+        int playerHealthPerLevel = readInt(values, "player.health.perLevel", 20);
+        int damageBase = readInt(values, "player.damage.base", 100);
+        int damagePerLevel = readInt(values, "player.damage.perLevel", 5);
+        maxLevel = Math.max(1, readInt(values, "player.maxLevel", 1000));
+
+        experienceToNext = new int[maxLevel + 2];
+        maxHealth = new int[maxLevel + 1];
+        damageMultiplier = new int[maxLevel + 1];
+        experienceToReach = new long[maxLevel + 2];
+        for (int level = 1; level <= maxLevel + 1; level++) {
+            experienceToNext[level] = (int) Math.min(Integer.MAX_VALUE,
+                    Math.max(1L, (long) perLevelSquared * level * level));
+            if (level <= maxLevel) {
+                maxHealth[level] = playerHealthBase + (level - 1) * playerHealthPerLevel;
+                damageMultiplier[level] = damageBase + (level - 1) * damagePerLevel;
+            }
+            if (level > 1) {
+                experienceToReach[level] = experienceToReach[level - 1] + experienceToNext[level - 1];
+            }
+        }
+    }
+
+    /**
+     * The tables the game is using, loaded on first use
+     */
+    public static GameTables get() {
+        GameTables tables = current;
+        if (tables == null) {
+            synchronized (GameTables.class) {
+                if (current == null) {
+                    current = loadDefault();
+                }
+                tables = current;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Use other tables from now on. Players keep the tables they were
+     * created with.
+     */
+    public static void setCurrent(GameTables tables) {
+        current = tables;
+    }
+
+    /**
+     * Tables from a balance file
+     */
+    public static GameTables load(Path path) throws IOException {
+        Properties values = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            values.load(reader);
+        }
+        return new GameTables(values);
+    }
+
+    /**
+     * Tables from balance values; keys that are missing keep their defaults
+     */
+    public static GameTables fromProperties(Properties values) {
+        return new GameTables(values);
+    }
+
+    private static GameTables loadDefault() {
+        String override = System.getProperty("kryptokey.balance");
+        if (override != null) {
+            try {
+                return load(Paths.get(override));
+            } catch (IOException e) {
+                System.err.println("Ignoring balance file " + override + ": " + e.getMessage());
+            }
+        }
+
+        Properties values = new Properties();
+        try (InputStream in = GameTables.class.getResourceAsStream("/resources/data/balance.properties")) {
+            if (in != null) {
+                values.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to load balance tables, using defaults: " + e.getMessage());
+        }
+        return new GameTables(values);
+    }
+
+    // Monster stats
+
+    public int monsterHealth(int difficulty, Monster.MonsterType type) {
+        if (difficulty <= tableDifficulties) {
+            return monsterHealth[difficulty * TYPES.length + type.ordinal()];
+        }
+        return computeHealth(difficulty, type.ordinal());
+    }
+
+    public int monsterAttack(int difficulty, Monster.MonsterType type) {
+        if (difficulty <= tableDifficulties) {
+            return monsterAttack[difficulty * TYPES.length + type.ordinal()];
+        }
+        return computeAttack(difficulty, type.ordinal());
+    }
+
+    public int monsterExperience(int difficulty, Monster.MonsterType type) {
+        if (difficulty <= tableDifficulties) {
+            return monsterExperience[difficulty * TYPES.length + type.ordinal()];
+        }
+        return experiencePerDifficulty[type.ordinal()] * difficulty;
+    }
+
+    public double dropChance(Monster.MonsterType type) {
+        return dropChance[type.ordinal()];
+    }
+
+    /**
+     * Health scale for a monster type, the monster.TYPE.health value
+     */
+    public double healthMultiplier(Monster.MonsterType type) {
+        return healthMultiplier[type.ordinal()];
+    }
+
+    /**
+     * Attack scale for a monster type, the monster.TYPE.attack value
+     */
+    public double attackMultiplier(Monster.MonsterType type) {
+        return attackMultiplier[type.ordinal()];
+    }
+
+    private int computeHealth(int difficulty, int type) {
+        return (int) ((healthBase + difficulty * healthPerDifficulty) * healthMultiplier[type]);
+    }
+
+    private int computeAttack(int difficulty, int type) {
+        return (int) ((attackBase + difficulty * attackPerDifficulty) * attackMultiplier[type]);
+    }
+
+    // Player curve
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * Experience needed to go from level to the next
+     */
+    public int experienceToNextLevel(int level) {
+        return experienceToNext[clampLevel(level)];
+    }
+
+    public int maxHealth(int level) {
+        return maxHealth[clampLevel(level)];
+    }
+
+    /**
+     * Damage multiplier in percent
+     */
+    public int damageMultiplier(int level) {
+        return damageMultiplier[clampLevel(level)];
+    }
+
+    /**
+     * Experience a level 1 player needs to reach a level
+     */
+    public long experienceToReach(int level) {
+        return experienceToReach[clampLevel(level)];
+    }
+
+    /**
+     * Level a player reaches with this much experience in total, from 1 up
+     * to the level cap
+     */
+    public int levelForExperience(long totalExperience) {
+        if (totalExperience <= 0) {
+            return 1;
+        }
+        if (totalExperience >= experienceToReach[maxLevel]) {
+            return maxLevel;
+        }
+        int found = Arrays.binarySearch(experienceToReach, 1, maxLevel + 1, totalExperience);
+        // Not found: the insertion point is the first level out of reach
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * Final score: every level reached counted at what it takes to leave it,
+     * plus the experience towards the next
+     */
+    public long finalScore(int level, int experience) {
+        int clamped = clampLevel(level);
+        return experienceToReach[clamped + 1] - experienceToReach[2] + experience;
+    }
+
+    private int clampLevel(int level) {
+        return Math.max(1, Math.min(level, maxLevel));
+    }
+
+    private static int readInt(Properties values, String key, int fallback) {
+        String value = values.getProperty(key);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring bad balance value " + key + "=" + value);
+            }
+        }
+        return fallback;
+    }
+
+    private static double readDouble(Properties values, String key, double fallback) {
+        String value = values.getProperty(key);
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring bad balance value " + key + "=" + value);
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,87 @@
+package src;
+
+/**
+ * Counts of small non-negative integers, one bin per value up to a cap
+ * (the last bin holds the cap and everything above it). Histograms with the
+ * same cap merge by adding bins, so workers can fill their own and combine
+ * them at the end without sharing anything.
+ */
+public class Histogram {
+    private final long[] bins;
+    private long count;
+    private long sum;
+
+    /**
+     * @param maxValue values at or above this share the last bin
+     */
+    public Histogram(int maxValue) {
+        if (maxValue < 0) {
+            throw new IllegalArgumentException("Histogram cap must not be negative");
+        }
+        this.bins = new long[maxValue + 1];
+    }
+
+    public void add(int value) {
+        bins[Math.max(0, Math.min(value, bins.length - 1))]++;
+        count++;
+        sum += value;
+    }
+
+    public void merge(Histogram other) {
+        if (other.bins.length != bins.length) {
+            throw new IllegalArgumentException("Histograms have different caps");
+        }
+        for (int i = 0; i < bins.length; i++) {
+            bins[i] += other.bins[i];
+        }
+        count += other.count;
+        sum += other.sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getBin(int value) {
+        return bins[value];
+    }
+
+    public int getMaxValue() {
+        return bins.length - 1;
+    }
+
+    /**
+     * Mean of the values added, including any above the cap
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Smallest value with at least fraction of the values at or below it;
+     * 0 when empty
+     */
+    public int percentile(double fraction) {
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < bins.length; i++) {
+            seen += bins[i];
+            if (seen >= rank && seen > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Largest value seen, capped; 0 when empty
+     */
+    public int max() {
+        for (int i = bins.length - 1; i >= 0; i--) {
+            if (bins[i] > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,297 @@
+package src;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+/**
+ * Keeps the edit distance between a challenge and the text typed so far up
+ * to date on every keystroke.
+ *
+ * Uses the blocked form of Myers' bit-vector algorithm with the challenge as
+ * the pattern (see MyersPattern). Each typed character is one column, which
+ * costs ceil(m / 64) word operations, and the column state for every prefix
+ * of the input is kept on a stack. Typing or deleting at the end of the field is therefore
+ * a push or a pop; an edit in the middle only replays the columns after it.
+ */
+public class LiveTypingScorer implements DocumentListener {
+
+    /**
+     * Callback for when the live score changes
+     */
+    public interface ScoreListener {
+        void onScoreChanged(LiveTypingScorer scorer);
+    }
+
+    private final DamagePerCharacter damageCalculator;
+    private ScoreListener scoreListener;
+
+    // Challenge text and its match masks
+    private MyersPattern pattern;
+
+    // Mirror of the typed text, with when each character was typed (-1 if unknown)
+    private char[] input = new char[16];
+    private long[] typedAt = new long[16];
+    private int inputLength = 0;
+    private long startedAt;
+
+    // Column state per input prefix: scores[i] is the distance for the first i chars
+    private int[] scores = new int[17];
+    private long[] positiveColumns = new long[0];
+    private long[] negativeColumns = new long[0];
+
+    private final Segment segment = new Segment();
+
+    public LiveTypingScorer(DamagePerCharacter damageCalculator) {
+        this.damageCalculator = damageCalculator;
+        setTarget("");
+    }
+
+    public void setScoreListener(ScoreListener scoreListener) {
+        this.scoreListener = scoreListener;
+    }
+
+    /**
+     * Start scoring against a new challenge. Text already typed is kept and
+     * rescored, so this can be called before or after clearing the field.
+     */
+    public void setTarget(String target) {
+        setTarget(new MyersPattern(target));
+    }
+
+    /**
+     * Start scoring against a challenge whose masks were already built
+     */
+    public void setTarget(MyersPattern pattern) {
+        this.pattern = pattern;
+        this.startedAt = System.nanoTime();
+        int blocks = pattern.getBlocks();
+
+        positiveColumns = new long[scores.length * blocks];
+        negativeColumns = new long[scores.length * blocks];
+        pattern.initColumn(positiveColumns, negativeColumns, 0);
+        scores[0] = pattern.length();
+
+        replayFrom(0);
+        notifyListener();
+    }
+
+    /**
+     * Append one typed character
+     */
+    public void append(char c) {
+        ensureInputCapacity(inputLength + 1);
+        input[inputLength] = c;
+        typedAt[inputLength] = System.nanoTime();
+        pushColumn(inputLength, c);
+        inputLength++;
+        notifyListener();
+    }
+
+    /**
+     * Remove the last typed character, if any
+     */
+    public void deleteLast() {
+        if (inputLength > 0) {
+            inputLength--;
+            notifyListener();
+        }
+    }
+
+    /**
+     * Replace the whole typed text
+     */
+    public void setInput(CharSequence text) {
+        ensureInputCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            input[i] = text.charAt(i);
+            typedAt[i] = -1;
+        }
+        inputLength = text.length();
+        replayFrom(0);
+        notifyListener();
+    }
+
+    /**
+     * Insert characters at an offset in the typed text
+     */
+    public void insert(int offset, CharSequence text) {
+        int count = text.length();
+        ensureInputCapacity(inputLength + count);
+        System.arraycopy(input, offset, input, offset + count, inputLength - offset);
+        System.arraycopy(typedAt, offset, typedAt, offset + count, inputLength - offset);
+        // Only single keystrokes are timed; pasted text isn't typing
+        long now = count == 1 ? System.nanoTime() : -1;
+        for (int i = 0; i < count; i++) {
+            input[offset + i] = text.charAt(i);
+            typedAt[offset + i] = now;
+        }
+        int previousLength = inputLength;
+        inputLength += count;
+
+        // Columns before the offset are still valid
+        if (offset == previousLength) {
+            for (int i = offset; i < inputLength; i++) {
+                pushColumn(i, input[i]);
+            }
+        } else {
+            replayFrom(offset);
+        }
+        notifyListener();
+    }
+
+    /**
+     * Remove characters at an offset in the typed text
+     */
+    public void remove(int offset, int count) {
+        int end = offset + count;
+        System.arraycopy(input, end, input, offset, inputLength - end);
+        System.arraycopy(typedAt, end, typedAt, offset, inputLength - end);
+        boolean atEnd = end == inputLength;
+        inputLength -= count;
+
+        // Deleting from the end just drops columns
+        if (!atEnd) {
+            replayFrom(offset);
+        }
+        notifyListener();
+    }
+
+    // DocumentListener
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        Document document = e.getDocument();
+        try {
+            document.getText(e.getOffset(), e.getLength(), segment);
+            insert(e.getOffset(), segment);
+        } catch (BadLocationException ex) {
+            resync(document);
+        }
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        remove(e.getOffset(), e.getLength());
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+        // Attribute changes don't affect the text
+    }
+
+    private void resync(Document document) {
+        try {
+            document.getText(0, document.getLength(), segment);
+            setInput(segment);
+        } catch (BadLocationException ignored) {}
+    }
+
+    // Queries
+
+    public String getTarget() {
+        return pattern.getTarget();
+    }
+
+    public int getInputLength() {
+        return inputLength;
+    }
+
+    public int getDistance() {
+        return scores[inputLength];
+    }
+
+    /**
+     * Accuracy of the text typed so far, same formula as a submitted attempt
+     */
+    public double getAccuracy() {
+        return EditDistance.accuracy(getDistance(), Math.max(inputLength, pattern.length()));
+    }
+
+    public DamagePerCharacter.HitType getProjectedHitType() {
+        return damageCalculator.getHitType(getAccuracy());
+    }
+
+    public int getProjectedDamage() {
+        return damageCalculator.projectDamage(inputLength, getAccuracy());
+    }
+
+    /**
+     * Result for the current input, as if it was submitted now
+     */
+    public TimedTyping.TypingResult toTypingResult() {
+        return new TimedTyping.TypingResult(getAccuracy(), new String(input, 0, inputLength), false,
+                getKeyLatencies());
+    }
+
+    /**
+     * Milliseconds between each typed character and the one before it (the
+     * first is timed from setTarget), or -1 where that isn't known
+     */
+    public int[] getKeyLatencies() {
+        int[] latencies = new int[inputLength];
+        long previous = startedAt;
+        for (int i = 0; i < inputLength; i++) {
+            long at = typedAt[i];
+            latencies[i] = at >= 0 && previous >= 0 ? (int) ((at - previous) / 1_000_000) : -1;
+            previous = at;
+        }
+        return latencies;
+    }
+
+    // Bit-vector internals
+
+    private void replayFrom(int offset) {
+        for (int i = offset; i < inputLength; i++) {
+            pushColumn(i, input[i]);
+        }
+    }
+
+    /**
+     * Compute column i + 1 from column i for typed character c
+     */
+    private void pushColumn(int i, char c) {
+        ensureColumnCapacity(i + 2);
+
+        int blocks = pattern.getBlocks();
+        int carry = pattern.advance(positiveColumns, negativeColumns, i * blocks, (i + 1) * blocks, c);
+        scores[i + 1] = scores[i] + carry;
+    }
+
+    private void ensureInputCapacity(int size) {
+        if (input.length < size) {
+            int capacity = Math.max(size, input.length * 2);
+            char[] grown = new char[capacity];
+            System.arraycopy(input, 0, grown, 0, inputLength);
+            input = grown;
+            long[] grownTimes = new long[capacity];
+            System.arraycopy(typedAt, 0, grownTimes, 0, inputLength);
+            typedAt = grownTimes;
+        }
+    }
+
+    private void ensureColumnCapacity(int columns) {
+        if (scores.length < columns) {
+            int capacity = Math.max(columns, scores.length * 2);
+            int[] grownScores = new int[capacity];
+            System.arraycopy(scores, 0, grownScores, 0, scores.length);
+            scores = grownScores;
+
+            int blocks = pattern.getBlocks();
+            long[] grownPositive = new long[capacity * blocks];
+            long[] grownNegative = new long[capacity * blocks];
+            System.arraycopy(positiveColumns, 0, grownPositive, 0, positiveColumns.length);
+            System.arraycopy(negativeColumns, 0, grownNegative, 0, negativeColumns.length);
+            positiveColumns = grownPositive;
+            negativeColumns = grownNegative;
+        }
+    }
+
+    private void notifyListener() {
+        if (scoreListener != null) {
+            scoreListener.onScoreChanged(this);
+        }
+    }
+}
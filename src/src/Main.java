@@ -2,7 +2,10 @@ package src;
 
 public class Main {
     public static void main(String[] args) {
-        FontLoader.loadFonts();
+        // Fonts, images and the first monsters load in the background behind the title screen
+        AssetLoader.preload();
+        // Repaint accounting; F3 shows what each frame redraws
+        RepaintTracker.install();
         TitleSequence.welcomeScreen();
     }
 }
\ No newline at end of file
@@ -0,0 +1,310 @@
+package src;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Typist trained from recorded attempts. For every bigram context (previous
+ * target key, current target key) it learns how often the key is skipped,
+ * mistyped or preceded by an extra key, plus the mean and spread of the key
+ * latency. Mistyped keys are drawn from a per-key confusion table learned
+ * from what was actually typed instead.
+ *
+ * Contexts seen only a few times are smoothed towards the statistics of the
+ * key alone, and those towards the whole log, so a small log still gives a
+ * sensible model.
+ *
+ * Log format, one attempt per line:
+ *   target TAB typed TAB comma-separated latencies in ms (may be empty)
+ */
+public class MarkovTypist extends TypistModel {
+    private static final int KEYS = TypingProfile.KEYS;
+    private static final int CONTEXTS = TypingProfile.BIGRAMS;
+
+    private final float[] omitRate;
+    private final float[] substituteRate;
+    private final float[] insertRate;
+    private final float[] latencyMean;
+    private final float[] latencyDeviation;
+
+    // Per target key, the letter typed instead; null where never seen
+    private final AliasTable[] confusions;
+
+    private MarkovTypist(Trainer trainer, Random random) {
+        super(random);
+        omitRate = new float[CONTEXTS];
+        substituteRate = new float[CONTEXTS];
+        insertRate = new float[CONTEXTS];
+        latencyMean = new float[CONTEXTS];
+        latencyDeviation = new float[CONTEXTS];
+        confusions = new AliasTable[KEYS];
+        trainer.fill(this);
+    }
+
+    @Override
+    protected void typeChallenge(String target) {
+        int previous = TypingProfile.OTHER_KEY;
+        for (int i = 0; i < target.length(); i++) {
+            char c = target.charAt(i);
+            int key = TypingProfile.keyIndex(c);
+            int context = TypingProfile.bigramIndex(previous, key);
+            previous = key;
+
+            if (random.nextDouble() < insertRate[context]) {
+                press(nearbyKey(c), latency(latencyMean[context], latencyDeviation[context]));
+            }
+
+            double roll = random.nextDouble();
+            if (roll < omitRate[context]) {
+                continue;
+            }
+            roll -= omitRate[context];
+
+            char pressed = roll < substituteRate[context] ? confusedKey(c, key) : c;
+            press(pressed, latency(latencyMean[context], latencyDeviation[context]));
+        }
+    }
+
+    private char confusedKey(char c, int key) {
+        AliasTable confusion = confusions[key];
+        if (confusion == null) {
+            return nearbyKey(c);
+        }
+        char typed = (char) ('a' + confusion.sample(random));
+        return Character.isUpperCase(c) ? Character.toUpperCase(typed) : typed;
+    }
+
+    /**
+     * Collects attempts and builds a MarkovTypist from them
+     */
+    public static class Trainer {
+        // Observations a context needs before its own numbers outweigh the fallback
+        private static final double PRIOR_WEIGHT = 5.0;
+
+        // Used when the log has no timings at all (about 40 wpm)
+        private static final double DEFAULT_LATENCY = 300.0;
+
+        // Pauses longer than this are thinking, not typing
+        private static final int MAX_LATENCY_MS = 1500;
+
+        private final long[] seen = new long[CONTEXTS];
+        private final long[] omitted = new long[CONTEXTS];
+        private final long[] substituted = new long[CONTEXTS];
+        private final long[] inserted = new long[CONTEXTS];
+        private final long[] timed = new long[CONTEXTS];
+        private final double[] latencySum = new double[CONTEXTS];
+        private final double[] latencySquares = new double[CONTEXTS];
+        private final long[][] confusionCounts = new long[KEYS][26];
+
+        /**
+         * One attempt at a challenge
+         */
+        public void add(String target, TimedTyping.TypingResult result) {
+            if (result == null || result.isTimedOut()) {
+                return;
+            }
+            add(target, result.getUserInput(), result.getKeyLatencies());
+        }
+
+        /**
+         * One attempt; latencies may be null
+         */
+        public void add(String target, String typed, int[] latencies) {
+            int[] script = TypingAlignment.align(target, typed);
+            int t = 0;
+            int i = 0;
+            int previous = TypingProfile.OTHER_KEY;
+            boolean extraTyped = false;
+
+            for (int run : script) {
+                int op = TypingAlignment.op(run);
+                for (int k = 0; k < TypingAlignment.length(run); k++) {
+                    if (op == TypingAlignment.INSERT) {
+                        extraTyped = true;
+                        i++;
+                        continue;
+                    }
+
+                    int key = TypingProfile.keyIndex(target.charAt(t));
+                    int context = TypingProfile.bigramIndex(previous, key);
+                    seen[context]++;
+                    if (extraTyped) {
+                        inserted[context]++;
+                    }
+
+                    if (op == TypingAlignment.DELETE) {
+                        omitted[context]++;
+                    } else {
+                        if (op == TypingAlignment.SUBSTITUTE) {
+                            substituted[context]++;
+                            int typedKey = TypingProfile.keyIndex(typed.charAt(i));
+                            if (typedKey != TypingProfile.OTHER_KEY) {
+                                confusionCounts[key][typedKey]++;
+                            }
+                        }
+                        if (latencies != null && i < latencies.length
+                                && latencies[i] >= 0 && latencies[i] <= MAX_LATENCY_MS) {
+                            timed[context]++;
+                            latencySum[context] += latencies[i];
+                            latencySquares[context] += (double) latencies[i] * latencies[i];
+                        }
+                        i++;
+                    }
+
+                    previous = key;
+                    extraTyped = false;
+                    t++;
+                }
+            }
+        }
+
+        /**
+         * One line of a keystroke log
+         */
+        public void addLogLine(String line) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 2) {
+                return;
+            }
+            int[] latencies = null;
+            if (fields.length > 2 && !fields[2].isEmpty()) {
+                String[] values = fields[2].split(",");
+                latencies = new int[values.length];
+                for (int k = 0; k < values.length; k++) {
+                    latencies[k] = Integer.parseInt(values[k].trim());
+                }
+            }
+            add(fields[0], fields[1], latencies);
+        }
+
+        /**
+         * Every line of a keystroke log file
+         */
+        public void addLog(Path path) throws IOException {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    addLogLine(line);
+                }
+            }
+        }
+
+        /**
+         * Format an attempt as a log line
+         */
+        public static String logLine(String target, TimedTyping.TypingResult result) {
+            StringBuilder line = new StringBuilder(target).append('\t').append(result.getUserInput()).append('\t');
+            int[] latencies = result.getKeyLatencies();
+            if (latencies != null) {
+                for (int k = 0; k < latencies.length; k++) {
+                    if (k > 0) {
+                        line.append(',');
+                    }
+                    line.append(latencies[k]);
+                }
+            }
+            return line.toString();
+        }
+
+        public MarkovTypist build(Random random) {
+            return new MarkovTypist(this, random);
+        }
+
+        private void fill(MarkovTypist model) {
+            // Totals per key (over every previous key) and over the whole log, for smoothing
+            long[] keySeen = new long[KEYS];
+            long[] keyOmitted = new long[KEYS];
+            long[] keySubstituted = new long[KEYS];
+            long[] keyInserted = new long[KEYS];
+            long[] keyTimed = new long[KEYS];
+            double[] keySum = new double[KEYS];
+            double[] keySquares = new double[KEYS];
+            for (int context = 0; context < CONTEXTS; context++) {
+                int key = context % KEYS;
+                keySeen[key] += seen[context];
+                keyOmitted[key] += omitted[context];
+                keySubstituted[key] += substituted[context];
+                keyInserted[key] += inserted[context];
+                keyTimed[key] += timed[context];
+                keySum[key] += latencySum[context];
+                keySquares[key] += latencySquares[context];
+            }
+
+            long allSeen = sum(keySeen);
+            double omitPrior = ratio(sum(keyOmitted), allSeen, 0);
+            double substitutePrior = ratio(sum(keySubstituted), allSeen, 0);
+            double insertPrior = ratio(sum(keyInserted), allSeen, 0);
+            long allTimed = sum(keyTimed);
+            double meanPrior = ratio(sum(keySum), allTimed, DEFAULT_LATENCY);
+            double deviationPrior = deviation(sum(keySum), sum(keySquares), allTimed, meanPrior * 0.25);
+
+            for (int context = 0; context < CONTEXTS; context++) {
+                int key = context % KEYS;
+                double keyOmit = smooth(keyOmitted[key], keySeen[key], omitPrior);
+                double keySubstitute = smooth(keySubstituted[key], keySeen[key], substitutePrior);
+                double keyInsert = smooth(keyInserted[key], keySeen[key], insertPrior);
+                double keyMean = smooth(keySum[key], keyTimed[key], meanPrior);
+                double keyDeviation = deviation(keySum[key], keySquares[key], keyTimed[key], deviationPrior);
+
+                model.omitRate[context] = (float) smooth(omitted[context], seen[context], keyOmit);
+                model.substituteRate[context] = (float) smooth(substituted[context], seen[context], keySubstitute);
+                model.insertRate[context] = (float) smooth(inserted[context], seen[context], keyInsert);
+                model.latencyMean[context] = (float) smooth(latencySum[context], timed[context], keyMean);
+                model.latencyDeviation[context] = (float) (timed[context] >= PRIOR_WEIGHT
+                        ? deviation(latencySum[context], latencySquares[context], timed[context], keyDeviation)
+                        : keyDeviation);
+            }
+
+            double[] weights = new double[26];
+            for (int key = 0; key < KEYS; key++) {
+                long total = 0;
+                for (int typed = 0; typed < 26; typed++) {
+                    weights[typed] = confusionCounts[key][typed];
+                    total += confusionCounts[key][typed];
+                }
+                if (total > 0) {
+                    model.confusions[key] = new AliasTable(26);
+                    model.confusions[key].rebuild(weights, 26);
+                }
+            }
+        }
+
+        /**
+         * Mean of count observations totalling value, pulled towards prior
+         * while there are few of them
+         */
+        private static double smooth(double value, long count, double prior) {
+            return (value + PRIOR_WEIGHT * prior) / (count + PRIOR_WEIGHT);
+        }
+
+        private static double ratio(double value, long count, double fallback) {
+            return count == 0 ? fallback : value / count;
+        }
+
+        private static double deviation(double sum, double squares, long count, double fallback) {
+            if (count < 2) {
+                return fallback;
+            }
+            double mean = sum / count;
+            return Math.sqrt(Math.max(0, squares / count - mean * mean));
+        }
+
+        private static long sum(long[] values) {
+            long total = 0;
+            for (long value : values) {
+                total += value;
+            }
+            return total;
+        }
+
+        private static double sum(double[] values) {
+            double total = 0;
+            for (double value : values) {
+                total += value;
+            }
+            return total;
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package src;
 
-import java.util.Random;
-
 public class Monster {
+    private static final String[] BATTLE_CRIES = {"Grr", "Hehe", "oOoO", "Yo.", "Hola", "DIE", "OwU",
+            "Roar!", "C'mere", ";)", "Oh shit", "Bazinga!"};
+
+    // Monster names for generation; the GUI and the headless engine both draw from this
+    private static final String[] MONSTER_NAMES = {
+            "Goblin", "Orc", "Troll", "Skeleton", "Zombie", "Ghost",
+            "Slime", "Bat", "Spider", "Wolf", "Bear", "Snake",
+            "Dragon", "Demon", "Witch", "Warlock", "Banshee", "Ogre"
+    };
+
     private String name;
     private int health;
     private int maxHealth;
@@ -12,6 +20,13 @@ public class Monster {
     private int expYield;
     private double potionDropChance;
 
+    // This monster's encounter number and how far along each of its random streams it is
+    private final GameRandom random;
+    private final long encounter;
+    private int attackDraws;
+    private int lootDraws;
+    private int cryDraws;
+
 
     // Enum for different monster types (color-coded)
     public enum MonsterType {
@@ -45,20 +60,42 @@ public class Monster {
 
     // Constructor
     public Monster(String name, int difficulty) {
+        this(name, difficulty, GameRandom.session().nextEncounter());
+    }
+
+    // Constructor for a numbered encounter of the current session
+    public Monster(String name, int difficulty, long encounter) {
+        this(name, difficulty, GameRandom.session(), encounter);
+    }
+
+    // Constructor for a numbered encounter of a given session, e.g. one per simulation worker
+    public Monster(String name, int difficulty, GameRandom random, long encounter) {
+        this(name, difficulty, random, encounter, GameTables.get());
+    }
+
+    // Constructor that also takes the balance tables to draw stats from
+    public Monster(String name, int difficulty, GameRandom random, long encounter, GameTables tables) {
+        this.random = random;
+        this.encounter = encounter;
         this.name = name;
         this.difficulty = Math.max(1, difficulty);
         this.type = determineType(difficulty);
 
         // Initialize stats based on difficulty
-        initializeStats();
+        initializeStats(tables);
+    }
+
+    /**
+     * Which monster a numbered encounter of a session meets
+     */
+    public static String nameFor(GameRandom random, long encounter) {
+        return MONSTER_NAMES[random.intAt(GameRandom.Purpose.ENCOUNTER, encounter, 0, MONSTER_NAMES.length)];
     }
 
     // Determine monster type based on difficulty
     private MonsterType determineType(int difficulty) {
-        Random rand = new Random();
-
         // 10% of monsters once level 3 are a boss (PURPLE)
-        if (difficulty >= 3 && rand.nextInt(10) == 0) {
+        if (difficulty >= 3 && random.intAt(GameRandom.Purpose.MONSTER_TYPE, encounter, 0, 10) == 0) {
             return MonsterType.PURPLE;
         }
 
@@ -72,42 +109,17 @@ public class Monster {
         }
     }
 
-    // Monster stats based on type and difficulty
-    private void initializeStats() {
-        // Base stats scale with difficulty
-        int baseHealth = 20 + (difficulty * 5);
-        int baseDamage = 5 + (difficulty * 2);
-
-        // Apply multipliers based on type
-        switch (type) {
-            case GREEN:
-                maxHealth = baseHealth;
-                baseAttack = baseDamage;
-                expYield = 10 * difficulty;
-                break;
-            case YELLOW:
-                maxHealth = (int)(baseHealth * 1.5);
-                baseAttack = (int)(baseDamage * 1.3);
-                expYield = 15 * difficulty;
-                break;
-            case RED:
-                maxHealth = (int)(baseHealth * 2.0);
-                baseAttack = (int)(baseDamage * 1.6);
-                expYield = 25 * difficulty;
-                break;
-            case PURPLE:
-                // Boss monsters are big strong
-                maxHealth = (int)(baseHealth * 3.0);
-                baseAttack = (int)(baseDamage * 2.0);
-                expYield = 50 * difficulty;
-                break;
-        }
+    // Monster stats based on type and difficulty, from the balance tables
+    private void initializeStats(GameTables tables) {
+        maxHealth = tables.monsterHealth(difficulty, type);
+        baseAttack = tables.monsterAttack(difficulty, type);
+        expYield = tables.monsterExperience(difficulty, type);
 
         // Set current health to max
         health = maxHealth;
 
         // Calculate potion drop chance
-        potionDropChance = type.getBaseDropChance();
+        potionDropChance = tables.dropChance(type);
     }
 
     // Take damage from player
@@ -124,16 +136,15 @@ public class Monster {
 
     // Get attack damage (with small random variation)
     public int getAttackDamage() {
-        Random rand = new Random();
         int variation = (int)(baseAttack * 0.2);
 
-        return baseAttack + rand.nextInt(variation * 2 + 1) - variation;
+        return baseAttack + random.intAt(GameRandom.Purpose.MONSTER_ATTACK, encounter, attackDraws++,
+                variation * 2 + 1) - variation;
     }
 
     // Check if monster drops a potion
     public boolean dropsPotion() {
-        Random rand = new Random();
-        return rand.nextDouble() < potionDropChance;
+        return random.doubleAt(GameRandom.Purpose.LOOT, encounter, lootDraws++) < potionDropChance;
     }
 
     // Getters
@@ -161,11 +172,13 @@ public class Monster {
         return expYield;
     }
 
+    public long getEncounter() {
+        return encounter;
+    }
+
     public String getBattleCry() {
-        Random rand = new Random();
-        String[] cries = {"Grr", "Hehe", "oOoO", "Yo.", "Hola", "DIE", "OwU",
-                "Roar!", "C'mere", ";)", "Oh shit", "Bazinga!"};
-        return cries[rand.nextInt(cries.length)];
+        return BATTLE_CRIES[random.intAt(GameRandom.Purpose.BATTLE_CRY, encounter, cryDraws++,
+                BATTLE_CRIES.length)];
     }
 
     @Override
@@ -1,21 +1,123 @@
 package src;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Utility class for loading monster images based on type
+ *
+ * Sprites are decoded and scaled off the EDT and cached per (monster, type,
+ * size), so a monster seen before shows up instantly and a new one shows a
+ * placeholder for the moment it takes to decode. When the sprite pack has
+ * been built (see SpritePack) sprites are copied out of it instead of
+ * decoded from the PNGs.
  */
 public class MonsterImageLoader {
+    public static final int DEFAULT_SIZE = 300;
+
+    // A 300x300 sprite is about 350 KB, so this holds every monster at the default size
+    private static final long CACHE_BUDGET_BYTES = 32L * 1024 * 1024;
+    private static final int DECODER_THREADS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final SpriteCache<SpriteKey> CACHE =
+            new SpriteCache<>(MonsterImageLoader::loadSprite, CACHE_BUDGET_BYTES, DECODER_THREADS);
 
     /**
-     * Load a monster image based on monster type
+     * What a cached sprite is for
+     */
+    private static final class SpriteKey {
+        final String name;
+        final Monster.MonsterType type;
+        final int size;
+
+        SpriteKey(String name, Monster.MonsterType type, int size) {
+            this.name = name;
+            this.type = type;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof SpriteKey)) {
+                return false;
+            }
+            SpriteKey key = (SpriteKey) other;
+            return size == key.size && type == key.type && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, type, size);
+        }
+    }
+
+    /**
+     * Load a monster image based on monster type, waiting for it to decode if
+     * it isn't cached yet. Prefer getSprite on the EDT.
      */
     public static ImageIcon getMonsterImage(String monsterName, Monster.MonsterType type) {
-        String color = type.getDisplayName();  // GREEN, YELLOW, etc.
+        return new ImageIcon(getSprite(monsterName, type, DEFAULT_SIZE).join());
+    }
 
-        String filename = monsterName + "_" + color + ".png";
+    /**
+     * A monster's sprite scaled to size x size, decoded in the background if
+     * it isn't cached. Never completes with null or an exception: a missing
+     * or unreadable image becomes a placeholder.
+     */
+    public static CompletableFuture<BufferedImage> getSprite(String monsterName, Monster.MonsterType type, int size) {
+        return CACHE.get(new SpriteKey(monsterName, type, size)).exceptionally(e -> {
+            System.err.println("Failed to load monster image for " + monsterName + ": " + e);
+            return createColoredPlaceholder(type, size);
+        });
+    }
+
+    /**
+     * The sprite if it's already cached, otherwise null
+     */
+    public static BufferedImage getCachedSprite(String monsterName, Monster.MonsterType type, int size) {
+        return CACHE.getIfPresent(new SpriteKey(monsterName, type, size));
+    }
+
+    /**
+     * Stand-in to show while a sprite loads
+     */
+    public static ImageIcon createPlaceholder(Monster.MonsterType type, int size) {
+        return new ImageIcon(createColoredPlaceholder(type, size));
+    }
+
+    public static SpriteCache<?> getCache() {
+        return CACHE;
+    }
+
+    // Runs on a decoder thread
+    private static BufferedImage loadSprite(SpriteKey key) {
+        String color = key.type.getDisplayName();  // GREEN, YELLOW, etc.
+
+        // Prebuilt pack first: no file lookups and no PNG to inflate
+        SpritePack pack = SpritePack.monsters();
+        if (pack != null) {
+            BufferedImage packed = pack.read(color + "/" + key.name + "_" + color);
+            if (packed != null) {
+                return packed.getWidth() == key.size && packed.getHeight() == key.size
+                        ? packed
+                        : scale(packed, key.size, key.size);
+            }
+        }
+
+        String filename = key.name + "_" + color + ".png";
 
         String[] possiblePaths = {
                 "/resources/assets/" + color + "/" + filename,
@@ -24,29 +126,101 @@ public class MonsterImageLoader {
 
         for (String path : possiblePaths) {
             try {
-                java.net.URL imgURL = MonsterImageLoader.class.getResource(path);
+                URL imgURL = MonsterImageLoader.class.getResource(path);
                 if (imgURL != null) {
-                    System.out.println("Found monster image at: " + path);
-                    ImageIcon originalIcon = new ImageIcon(imgURL);
-                    Image scaledImage = originalIcon.getImage().getScaledInstance(300, 300, Image.SCALE_SMOOTH);
-                    return new ImageIcon(scaledImage);
-
+                    BufferedImage decoded = decodeNear(imgURL, key.size, key.size);
+                    if (decoded != null) {
+                        return scale(decoded, key.size, key.size);
+                    }
                 }
-            } catch (Exception ignored) {}
+            } catch (IOException e) {
+                System.err.println("Failed to decode monster image " + path + ": " + e.getMessage());
+            }
         }
 
         // Fallback
-        System.err.println("Couldn't find monster image for: " + monsterName + " " + color + ". Creating placeholder.");
-        return createColoredPlaceholder(type);
+        System.err.println("Couldn't find monster image for: " + key.name + " " + color + ". Creating placeholder.");
+        return createColoredPlaceholder(key.type, key.size);
+    }
+
+    /**
+     * Decode an image at no less than width x height, skipping whole source
+     * pixels while reading (a 1080px sprite shown at 300px is read at 360px),
+     * so the full size image never exists in memory. Null if no reader
+     * understands it.
+     */
+    static BufferedImage decodeNear(URL url, int width, int height) throws IOException {
+        try (InputStream stream = url.openStream();
+             ImageInputStream in = new MemoryCacheImageInputStream(stream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int step = Math.max(1, Math.min(reader.getWidth(0) / width, reader.getHeight(0) / height));
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Downscale by repeated bilinear halving, then one last bilinear step to
+     * the exact size. Much faster than SCALE_SMOOTH and looks as good for
+     * large reductions. The result is in the screen's native format so
+     * drawing it is a straight copy.
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+
+            BufferedImage step = (w == width && h == height)
+                    ? createCompatibleImage(w, h)
+                    : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g2d = step.createGraphics();
+            g2d.setComposite(AlphaComposite.Src);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(current, 0, 0, w, h, null);
+            g2d.dispose();
+            current = step;
+        } while (w != width || h != height);
+
+        return current;
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
     }
 
 
     /**
      * Create a colored placeholder based on monster type
      */
-    private static ImageIcon createColoredPlaceholder(Monster.MonsterType type) {
-        BufferedImage img = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+    static BufferedImage createColoredPlaceholder(Monster.MonsterType type, int size) {
+        BufferedImage img = createCompatibleImage(size, size);
         Graphics2D g2d = img.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Drawn on a 200x200 grid, scaled to the size asked for
+        g2d.scale(size / 200.0, size / 200.0);
 
         // Set color based on monster type (all green with different intensities)
         Color color;
@@ -85,6 +259,6 @@ public class MonsterImageLoader {
         g2d.drawArc(80, 100, 40, 20, 0, -180);
 
         g2d.dispose();
-        return new ImageIcon(img);
+        return img;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package src;
+
+/**
+ * Precomputed match masks for one challenge string, for Myers' bit-vector
+ * edit distance.
+ *
+ * Building the masks is the only per-target work, so a pattern can be built
+ * once and reused for every input typed against the same challenge. Patterns
+ * are immutable and safe to share between threads. Targets longer than 64
+ * characters are split into 64-bit blocks (Hyyro's blocked variant).
+ */
+public class MyersPattern {
+    public static final int BLOCK_SIZE = 64;
+
+    private final String target;
+    private final int blocks;
+    private final long lastBlockHighBit;
+    private final long lastBlockMask;
+
+    // Masks for Latin-1 characters, indexed by char * blocks + block
+    private final long[] latinMasks;
+
+    // Masks for any other characters in the target
+    private final char[] extraChars;
+    private final long[] extraMasks;
+    private final int extraCount;
+
+    public MyersPattern(String target) {
+        this.target = target == null ? "" : target;
+        int m = this.target.length();
+        this.blocks = (m + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        int tailBits = m - (blocks - 1) * BLOCK_SIZE;
+        this.lastBlockHighBit = blocks == 0 ? 0L : 1L << (tailBits - 1);
+        this.lastBlockMask = blocks == 0 ? 0L : (tailBits == BLOCK_SIZE ? -1L : (1L << tailBits) - 1);
+
+        this.latinMasks = new long[256 * blocks];
+        char[] chars = new char[m];
+        long[] masks = new long[m * blocks];
+        int count = 0;
+
+        for (int i = 0; i < m; i++) {
+            char c = this.target.charAt(i);
+            int block = i / BLOCK_SIZE;
+            long bit = 1L << (i % BLOCK_SIZE);
+            if (c < 256) {
+                latinMasks[c * blocks + block] |= bit;
+            } else {
+                int slot = find(chars, count, c);
+                if (slot < 0) {
+                    slot = count++;
+                    chars[slot] = c;
+                }
+                masks[slot * blocks + block] |= bit;
+            }
+        }
+
+        this.extraChars = chars;
+        this.extraMasks = masks;
+        this.extraCount = count;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public int length() {
+        return target.length();
+    }
+
+    /**
+     * Number of 64-bit words in one column of state
+     */
+    public int getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Edit distance between the target and text. Allocates scratch space only
+     * for targets longer than 64 characters; use the overload with a scratch
+     * array to avoid that.
+     */
+    public int distance(CharSequence text) {
+        if (blocks <= 1) {
+            return singleBlockDistance(text);
+        }
+        return distance(text, new long[2 * blocks]);
+    }
+
+    /**
+     * Edit distance using caller-provided scratch of at least 2 * getBlocks() longs
+     */
+    public int distance(CharSequence text, long[] scratch) {
+        if (blocks <= 1) {
+            return singleBlockDistance(text);
+        }
+
+        // Positive deltas in the first half of scratch, negative in the second
+        initColumn(scratch, 0, scratch, blocks);
+        int score = target.length();
+        for (int j = 0; j < text.length(); j++) {
+            score += advance(scratch, 0, 0, scratch, blocks, blocks, text.charAt(j));
+        }
+        return score;
+    }
+
+    /**
+     * Write the state of the empty-input column at the given offset
+     */
+    public void initColumn(long[] positive, long[] negative, int at) {
+        initColumn(positive, at, negative, at);
+    }
+
+    /**
+     * Advance one column of state by typed character c. Reads the column at
+     * offset from, writes the next one at offset to (which may be the same
+     * place) and returns the change in distance.
+     */
+    public int advance(long[] positive, long[] negative, int from, int to, char c) {
+        return advance(positive, from, to, negative, from, to, c);
+    }
+
+    private void initColumn(long[] positive, int positiveAt, long[] negative, int negativeAt) {
+        for (int b = 0; b < blocks; b++) {
+            positive[positiveAt + b] = b == blocks - 1 ? lastBlockMask : -1L;
+            negative[negativeAt + b] = 0L;
+        }
+    }
+
+    private int advance(long[] positiveCol, int positiveFrom, int positiveTo,
+                        long[] negativeCol, int negativeFrom, int negativeTo, char c) {
+        // Horizontal delta entering the top block: the first row grows by one per column
+        int carry = 1;
+        for (int b = 0; b < blocks; b++) {
+            long positive = positiveCol[positiveFrom + b];
+            long negative = negativeCol[negativeFrom + b];
+            long eq = mask(c, b);
+            long highBit = b == blocks - 1 ? lastBlockHighBit : Long.MIN_VALUE;
+
+            long xv = eq | negative;
+            if (carry < 0) {
+                eq |= 1L;
+            }
+            long xh = (((eq & positive) + positive) ^ positive) | eq;
+            long ph = negative | ~(xh | positive);
+            long mh = positive & xh;
+
+            int out = 0;
+            if ((ph & highBit) != 0) {
+                out = 1;
+            } else if ((mh & highBit) != 0) {
+                out = -1;
+            }
+
+            ph <<= 1;
+            mh <<= 1;
+            if (carry < 0) {
+                mh |= 1L;
+            } else if (carry > 0) {
+                ph |= 1L;
+            }
+
+            positiveCol[positiveTo + b] = mh | ~(xv | ph);
+            negativeCol[negativeTo + b] = ph & xv;
+            carry = out;
+        }
+        return carry;
+    }
+
+    private int singleBlockDistance(CharSequence text) {
+        int n = text.length();
+        if (blocks == 0) {
+            return n;
+        }
+
+        long positive = lastBlockMask;
+        long negative = 0L;
+        int score = target.length();
+
+        for (int j = 0; j < n; j++) {
+            long eq = mask(text.charAt(j), 0);
+            long xv = eq | negative;
+            long xh = (((eq & positive) + positive) ^ positive) | eq;
+            long ph = negative | ~(xh | positive);
+            long mh = positive & xh;
+
+            if ((ph & lastBlockHighBit) != 0) {
+                score++;
+            } else if ((mh & lastBlockHighBit) != 0) {
+                score--;
+            }
+
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            positive = mh | ~(xv | ph);
+            negative = ph & xv;
+        }
+        return score;
+    }
+
+    private long mask(char c, int block) {
+        if (c < 256) {
+            return latinMasks[c * blocks + block];
+        }
+        int slot = find(extraChars, extraCount, c);
+        return slot < 0 ? 0L : extraMasks[slot * blocks + block];
+    }
+
+    private static int find(char[] chars, int count, char c) {
+        for (int i = 0; i < count; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
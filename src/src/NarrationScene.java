@@ -3,8 +3,6 @@ package src;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.Timer;
-import java.util.TimerTask;
 import javax.swing.JTextField;
 import java.awt.image.BufferedImage;
 
@@ -15,8 +13,13 @@ public class NarrationScene extends JPanel {
     private final ImageIcon noButton;
     private final ImageIcon inputBox;
 
+    // Drives the typing, fades and pauses on the shared frame clock
+    private final SceneClock clock = new SceneClock();
+    private Animator.Animation fadeIn;
+
     // Game state
-    private String displayedText = "";
+    // Current dialogue line, laid out once; the typewriter reveals it up to currentCharIndex
+    private WrappedText dialogueText;
     private int currentCharIndex = 0;
     private boolean isTyping = true;
     private boolean selectedYes = true;
@@ -69,7 +72,7 @@ public class NarrationScene extends JPanel {
         inputBox = loadImage("/resources/assets/inputBox.png");
         System.out.println("Input box loaded: " + (inputBox.getImageLoadStatus() == MediaTracker.COMPLETE));
         nameInputField = new JTextField();
-        nameInputField.setFont(getVT323Font(36f));
+        nameInputField.setFont(FontLoader.getVT323(36f));
         nameInputField.setBounds(inputX + 50, inputY + 20, 300, 40);
         nameInputField.setVisible(false);
         nameInputField.setOpaque(false);
@@ -91,13 +94,12 @@ public class NarrationScene extends JPanel {
 
     private ImageIcon loadImage(String path) {
         try {
-            // Get the resource URL first
-            java.net.URL imgURL = getClass().getResource(path);
-            if (imgURL == null) {
-                System.err.println("Couldn't find file: " + path);
+            // Normally already loaded at startup
+            ImageIcon image = AssetLoader.getImage(path);
+            if (image == null) {
                 return createMissingImagePlaceholder(path);
             }
-            return new ImageIcon(imgURL);
+            return image;
         } catch (Exception e) {
             System.err.println("Error loading image: " + path);
             e.printStackTrace();
@@ -118,36 +120,28 @@ public class NarrationScene extends JPanel {
     }
 
     public void startFadeIn() {
-        Timer fadeTimer = new Timer();
-        fadeTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                sceneAlpha += 0.05f;
-                if (sceneAlpha >= 1f) {
-                    sceneAlpha = 1f;
-                    this.cancel();
-                }
-                repaint();
-            }
-        }, 0, 30);
+        // Already fading in (the constructor starts it too)
+        if (fadeIn != null && !fadeIn.isDone()) {
+            return;
+        }
+        fadeIn = clock.play(Animator.tween(600, Animator.Easing.LINEAR, sceneAlpha, 1,
+                value -> sceneAlpha = (float) value).repaints(this));
     }
 
     private void setupTypingAnimation() {
-        Timer typingTimer = new Timer();
-        typingTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (currentCharIndex < dialogue[dialogueStage].length()) {
-                    displayedText = dialogue[dialogueStage].substring(0, currentCharIndex + 1);
-                    currentCharIndex++;
-                    repaint();
-                } else {
-                    isTyping = false;
-                    this.cancel();
-                    handleDialogueComplete();
-                }
+        // Lay the whole line out now; typing only moves the cutoff
+        dialogueText = new WrappedText(dialogue[dialogueStage], FontLoader.getVT323(36f), 880, 1.2f);
+        clock.every(25, () -> {
+            if (currentCharIndex < dialogueText.length()) {
+                // Repaint only the character just revealed, not the whole scene
+                int revealed = currentCharIndex++;
+                repaint(dialogueText.getBounds(textX, textY, revealed, currentCharIndex));
+                return true;
             }
-        }, 0, 25);
+            isTyping = false;
+            handleDialogueComplete();
+            return false;
+        });
     }
 
     private void handleDialogueComplete() {
@@ -155,6 +149,7 @@ public class NarrationScene extends JPanel {
             case 0: // Initial question
                 showButtons = true;
                 buttonsActive = true;
+                repaint(selectorBounds());
                 setupKeyListeners();
                 break;
 
@@ -170,6 +165,7 @@ public class NarrationScene extends JPanel {
 
             case 12: // Name prompt
                 showInput = true;
+                repaint(inputBounds());
                 nameInputField.setVisible(true);
                 nameInputField.requestFocusInWindow();
                 setupInputListener();
@@ -177,23 +173,18 @@ public class NarrationScene extends JPanel {
 
             default:
                 // Continue automatically after short delay
-                new Timer().schedule(new TimerTask() {
-                    @Override
-                    public void run() {
-                        advanceDialogue();
-                    }
-                }, 1500);
+                clock.after(1500, this::advanceDialogue);
                 break;
         }
     }
 
     private void advanceDialogue() {
+        // Clear the old line; the new one repaints itself as it types
+        repaint(dialogueText.getBounds(textX, textY, 0, currentCharIndex));
         dialogueStage++;
         currentCharIndex = 0;
-        displayedText = "";
         isTyping = true;
         setupTypingAnimation();
-        repaint();
     }
 
     private void setupKeyListeners() {
@@ -205,10 +196,10 @@ public class NarrationScene extends JPanel {
                 if (buttonsActive) {
                     if (e.getKeyCode() == KeyEvent.VK_LEFT) {
                         selectedYes = true;
-                        repaint();
+                        repaintCinna();
                     } else if (e.getKeyCode() == KeyEvent.VK_RIGHT) {
                         selectedYes = false;
-                        repaint();
+                        repaintCinna();
                     } else if (e.getKeyCode() == KeyEvent.VK_ENTER) {
                         handleSelection();
                     }
@@ -221,22 +212,12 @@ public class NarrationScene extends JPanel {
                     } else if (Character.isLetterOrDigit(e.getKeyChar())) {
                         playerName += e.getKeyChar();
                     }
-                    repaint();
+                    // Nothing to repaint: the text field draws the name itself
                 }
             }
         });
     }
 
-    private Font getVT323Font(float size) {
-        try {
-            return Font.createFont(Font.TRUETYPE_FONT,
-                            getClass().getResourceAsStream("/resources/fonts/VT323-Regular.ttf"))
-                    .deriveFont(size);
-        } catch (Exception e) {
-            return new Font("Monospaced", Font.PLAIN, (int)size);
-        }
-    }
-
     private void setupInputListener() {
         nameInputField.addActionListener(e -> {
             playerName = nameInputField.getText().trim();
@@ -245,21 +226,14 @@ public class NarrationScene extends JPanel {
                 nameEntered = true;
                 nameInputField.setVisible(false);
                 showInput = false;
-                repaint();
-                javax.swing.Timer greetingDelay = new javax.swing.Timer(1000, new ActionListener() {
-                    @Override
-                    public void actionPerformed(ActionEvent e) {
-                        startFadeOut();
-                    }
-                });
-
-                greetingDelay.setRepeats(false);
-                greetingDelay.start();
+                repaint(inputBounds());
+                clock.after(1000, this::startFadeOut);
             }
         });
     }
 
     private void handleSelection() {
+        repaint(selectorBounds());
         showButtons = false;
         buttonsActive = false;
 
@@ -276,22 +250,13 @@ public class NarrationScene extends JPanel {
 
     private void startFadeOut() {
         fadingOut = true;
-        Timer fadeTimer = new Timer();
-        fadeTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                fadeOutAlpha += 0.05f;
-                if (fadeOutAlpha >= 1f) {
-                    fadeOutAlpha = 1f;
-                    this.cancel();
-                    transitionToGame();
-                }
-                repaint();
-            }
-        }, 0, 30);
+        clock.play(Animator.tween(600, Animator.Easing.LINEAR, 0, 1, value -> fadeOutAlpha = (float) value)
+                .repaints(this)
+                .onComplete(this::transitionToGame));
     }
 
     private void transitionToGame() {
+        clock.stop();
         JFrame topFrame = (JFrame)SwingUtilities.getWindowAncestor(this);
         topFrame.dispose();
 
@@ -307,6 +272,43 @@ public class NarrationScene extends JPanel {
         return player;
     }
 
+    /**
+     * Where Cinna sits over the yes or the no button
+     */
+    private Rectangle cinnaBounds(boolean overYes) {
+        int buttonX = overYes ? yesX : noX;
+        int buttonWidth = overYes ? yesButton.getIconWidth() : noButton.getIconWidth();
+        return new Rectangle(buttonX + buttonWidth / 2 - cinnaSprite.getIconWidth() / 2, spriteY,
+                cinnaSprite.getIconWidth(), cinnaSprite.getIconHeight());
+    }
+
+    // Moving the selector only changes the two places Cinna can sit
+    private void repaintCinna() {
+        repaint(cinnaBounds(true));
+        repaint(cinnaBounds(false));
+    }
+
+    /**
+     * The yes/no buttons together with both Cinna positions
+     */
+    private Rectangle selectorBounds() {
+        Rectangle bounds = new Rectangle(yesX, buttonY, yesButton.getIconWidth(), yesButton.getIconHeight());
+        bounds.add(new Rectangle(noX, buttonY, noButton.getIconWidth(), noButton.getIconHeight()));
+        bounds.add(cinnaBounds(true));
+        bounds.add(cinnaBounds(false));
+        return bounds;
+    }
+
+    /**
+     * The name prompt, input box and greeting
+     */
+    private Rectangle inputBounds() {
+        FontMetrics metrics = FontLoader.getVT323Metrics(36f);
+        int top = inputY - 30 - metrics.getAscent();
+        int width = Math.max(400, 50 + metrics.stringWidth(greeting));
+        return new Rectangle(inputX, top, width, inputY + 150 + metrics.getDescent() - top);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -320,11 +322,11 @@ public class NarrationScene extends JPanel {
         }
 
         // Set retro font
-        g2d.setFont(getVT323Font(36f));
+        g2d.setFont(FontLoader.getVT323(36f));
 
         // Draw current dialogue text
         g2d.setColor(Color.WHITE);
-        drawWrappedText(g2d, displayedText, textX, textY, 880);
+        dialogueText.draw(g2d, textX, textY, currentCharIndex);
 
         // Draw buttons if visible
         if (showButtons) {
@@ -336,10 +338,7 @@ public class NarrationScene extends JPanel {
             }
 
             if (cinnaSprite.getImage() != null) {
-                int spriteX = selectedYes ?
-                        yesX + yesButton.getIconWidth()/2 - cinnaSprite.getIconWidth()/2 :
-                        noX + noButton.getIconWidth()/2 - cinnaSprite.getIconWidth()/2;
-                g2d.drawImage(cinnaSprite.getImage(), spriteX, spriteY, this);
+                g2d.drawImage(cinnaSprite.getImage(), cinnaBounds(selectedYes).x, spriteY, this);
             }
         }
 
@@ -363,23 +362,6 @@ public class NarrationScene extends JPanel {
         }
     }
 
-    private void drawWrappedText(Graphics g, String text, int x, int y, int maxWidth) {
-        FontMetrics fm = g.getFontMetrics();
-        String[] words = text.split(" ");
-        String currentLine = "";
-
-        for (String word : words) {
-            if (fm.stringWidth(currentLine + word) <= maxWidth) {
-                currentLine += word + " ";
-            } else {
-                g.drawString(currentLine, x, y);
-                y += fm.getHeight() * 1.2;
-                currentLine = word + " ";
-            }
-        }
-        g.drawString(currentLine, x, y);
-    }
-
     @Override
     public void addNotify() {
         super.addNotify();
@@ -10,49 +10,72 @@ public class Player {
     private int damageMultiplier;
     private int potionCount;
 
+    // Level curve this player was created with
+    private final GameTables tables;
+
+    // Per-key typing stats, used to aim challenges at weak spots (created on first use)
+    private TypingProfile typingProfile;
+
     // Constructor
     public Player(String name) {
+        this(name, GameTables.get());
+    }
+
+    // Constructor for a player on other balance tables, e.g. one point of a balance sweep
+    public Player(String name, GameTables tables) {
         this.name = name;
+        this.tables = tables;
         this.level = 1;
         this.experience = 0;
-        this.experienceToNextLevel = calculateExpForNextLevel(level);
-        this.maxHealth = 100;  // Starting max health
+        this.experienceToNextLevel = tables.experienceToNextLevel(level);
+        this.maxHealth = tables.maxHealth(level);  // Starting max health
         this.health = maxHealth;
-        this.damageMultiplier = 100;  // 100% base damage
+        this.damageMultiplier = tables.damageMultiplier(level);  // 100% base damage
         this.potionCount = 3;  // Start with 3 potions
     }
 
-    // Calculate experience needed for next level
-    private int calculateExpForNextLevel(int currentLevel) {
-        return 20 * currentLevel * currentLevel;
-    }
-
     // Add experience and check for level up
     public String addExperience(int amount) {
-        experience += amount;
-        StringBuilder levelUpMessage = new StringBuilder();
+        // Find the new level straight from the running total, however many levels it jumps
+        long total = tables.experienceToReach(level) + experience + amount;
+        int newLevel = Math.max(level, tables.levelForExperience(total));
+        long leftOver = total - tables.experienceToReach(newLevel);
+        experience = (int) Math.min(Integer.MAX_VALUE, leftOver);
+
+        if (newLevel == level) {
+            return "";
+        }
 
-        // Check for level up
-        while (experience >= experienceToNextLevel) {
-            level++;
-            experience -= experienceToNextLevel;
-            experienceToNextLevel = calculateExpForNextLevel(level);
+        int previousLevel = level;
+        level = newLevel;
+        experienceToNextLevel = tables.experienceToNextLevel(level);
 
-            // Increase stats with level
-            int previousMaxHealth = maxHealth;
-            maxHealth = 100 + (level - 1) * 20;  // Each level adds 20 HP
-            health += (maxHealth - previousMaxHealth);  // Heal by the amount of max health increase
+        // Increase stats with level, healing by the amount of max health increase
+        int previousMaxHealth = maxHealth;
+        maxHealth = tables.maxHealth(level);
+        health += (maxHealth - previousMaxHealth);
 
-            damageMultiplier += 5;  // Each level adds 5% to base damage
+        int damageIncrease = tables.damageMultiplier(level) - damageMultiplier;
+        damageMultiplier = tables.damageMultiplier(level);
 
-            levelUpMessage.append("LEVEL UP! You are now level ").append(level).append("!\n");
-            levelUpMessage.append("Max Health increased to ").append(maxHealth).append("\n");
-            levelUpMessage.append("Base Damage increased by 5%!\n");
+        StringBuilder levelUpMessage = new StringBuilder();
+        levelUpMessage.append("LEVEL UP! You are now level ").append(level).append("!\n");
+        if (level - previousLevel > 1) {
+            levelUpMessage.append("(").append(level - previousLevel).append(" levels gained)\n");
         }
-
+        levelUpMessage.append("Max Health increased to ").append(maxHealth).append("\n");
+        levelUpMessage.append("Base Damage increased by ").append(damageIncrease).append("%!\n");
         return levelUpMessage.toString();
     }
 
+    /**
+     * Score for the game so far: all experience earned, counting each level
+     * reached at what it took to leave it
+     */
+    public long getFinalScore() {
+        return tables.finalScore(level, experience);
+    }
+
     // Take damage from monster
     public int takeDamage(int amount) {
         int actualDamage = Math.min(health, amount);
@@ -116,6 +139,13 @@ public class Player {
         return maxHealth;
     }
 
+    public TypingProfile getTypingProfile() {
+        if (typingProfile == null) {
+            typingProfile = new TypingProfile();
+        }
+        return typingProfile;
+    }
+
     public int getPotionCount() {
         return potionCount;
     }
@@ -0,0 +1,212 @@
+package src;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Swing's repaint manager with a debug overlay that shows what each paint
+ * pass actually redraws.
+ *
+ * While the overlay is on, every repainted area is outlined straight onto
+ * the screen (each pass in a new colour; an outline stays until something
+ * paints over it) and a box in the top left corner shows paint passes per
+ * second and pixels filled per pass, so a change to what a scene repaints
+ * can be checked by eye. Turn it on with -Dkryptokey.debugRepaint=true or
+ * toggle it with F3. While it is off this behaves exactly like the default
+ * RepaintManager.
+ */
+public class RepaintTracker extends RepaintManager {
+    private static final Color[] PASS_COLORS = {
+            Color.MAGENTA, Color.CYAN, Color.YELLOW, Color.GREEN, Color.ORANGE
+    };
+
+    private static RepaintTracker installed;
+
+    private volatile boolean overlay = Boolean.getBoolean("kryptokey.debugRepaint");
+
+    // Components that asked for a repaint since the last pass
+    private final Set<JComponent> requested = new LinkedHashSet<>();
+
+    private long passes;
+    private long paintedPixels;
+    private int passColor;
+
+    // Totals for the current second, shown in the overlay box
+    private long secondStartNanos = System.nanoTime();
+    private int passesThisSecond;
+    private long pixelsThisSecond;
+    private String summary = "repaint: measuring...";
+
+    private RepaintTracker() {
+    }
+
+    /**
+     * Install as Swing's repaint manager and bind F3 to the overlay; later
+     * calls do nothing
+     */
+    public static synchronized void install() {
+        if (installed != null) {
+            return;
+        }
+        installed = new RepaintTracker();
+        SwingUtilities.invokeLater(() -> {
+            RepaintManager.setCurrentManager(installed);
+            KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(e -> {
+                if (e.getID() == KeyEvent.KEY_PRESSED && e.getKeyCode() == KeyEvent.VK_F3) {
+                    installed.setOverlay(!installed.isOverlay());
+                    return true;
+                }
+                return false;
+            });
+        });
+    }
+
+    /**
+     * The installed tracker, or null before install()
+     */
+    public static synchronized RepaintTracker get() {
+        return installed;
+    }
+
+    public boolean isOverlay() {
+        return overlay;
+    }
+
+    public void setOverlay(boolean on) {
+        overlay = on;
+        if (!on) {
+            // Paint over the outlines left on screen
+            SwingUtilities.invokeLater(() -> {
+                for (Window window : Window.getWindows()) {
+                    window.repaint();
+                }
+            });
+        }
+    }
+
+    /**
+     * Paint passes counted while the overlay was on
+     */
+    public long getPassCount() {
+        return passes;
+    }
+
+    /**
+     * Pixels filled over all counted passes
+     */
+    public long getPaintedPixels() {
+        return paintedPixels;
+    }
+
+    @Override
+    public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+        if (overlay && w > 0 && h > 0) {
+            synchronized (requested) {
+                requested.add(c);
+            }
+        }
+        super.addDirtyRegion(c, x, y, w, h);
+    }
+
+    @Override
+    public void paintDirtyRegions() {
+        if (!overlay) {
+            synchronized (requested) {
+                requested.clear();
+            }
+            super.paintDirtyRegions();
+            return;
+        }
+
+        // Read the dirty areas before painting clears them, in window coordinates
+        Map<JRootPane, List<Rectangle>> regions = new HashMap<>();
+        synchronized (requested) {
+            for (JComponent component : requested) {
+                JRootPane root = component.getRootPane();
+                Rectangle dirty = getDirtyRegion(component);
+                if (root == null || !component.isShowing() || dirty.isEmpty()) {
+                    continue;
+                }
+                Rectangle area = SwingUtilities.convertRectangle(component, dirty, root)
+                        .intersection(new Rectangle(root.getSize()));
+                if (!area.isEmpty()) {
+                    addMerged(regions.computeIfAbsent(root, r -> new ArrayList<>()), area);
+                }
+            }
+            requested.clear();
+        }
+
+        super.paintDirtyRegions();
+
+        if (!regions.isEmpty()) {
+            outline(regions);
+        }
+    }
+
+    /**
+     * Add an area, dropping areas inside another as Swing paints those once
+     */
+    private static void addMerged(List<Rectangle> areas, Rectangle area) {
+        for (Rectangle existing : areas) {
+            if (existing.contains(area)) {
+                return;
+            }
+        }
+        areas.removeIf(area::contains);
+        areas.add(area);
+    }
+
+    private void outline(Map<JRootPane, List<Rectangle>> regions) {
+        Color color = PASS_COLORS[passColor++ % PASS_COLORS.length];
+        long pixels = 0;
+        for (Map.Entry<JRootPane, List<Rectangle>> entry : regions.entrySet()) {
+            Graphics g = entry.getKey().getGraphics();
+            if (g == null) {
+                continue;
+            }
+            try {
+                g.setColor(color);
+                for (Rectangle area : entry.getValue()) {
+                    pixels += (long) area.width * area.height;
+                    g.drawRect(area.x, area.y, area.width - 1, area.height - 1);
+                }
+                drawSummary(g, entry.getKey());
+            } finally {
+                g.dispose();
+            }
+        }
+
+        passes++;
+        paintedPixels += pixels;
+        passesThisSecond++;
+        pixelsThisSecond += pixels;
+        long now = System.nanoTime();
+        if (now - secondStartNanos >= 1_000_000_000L) {
+            summary = String.format("repaint: %d passes/s, %,d px/pass",
+                    passesThisSecond, pixelsThisSecond / passesThisSecond);
+            secondStartNanos = now;
+            passesThisSecond = 0;
+            pixelsThisSecond = 0;
+        }
+    }
+
+    private void drawSummary(Graphics g, JRootPane root) {
+        g.setFont(FontLoader.getVT323(18f));
+        FontMetrics metrics = g.getFontMetrics();
+        String windowSize = String.format("window %,d px", (long) root.getWidth() * root.getHeight());
+        int width = Math.max(metrics.stringWidth(summary), metrics.stringWidth(windowSize)) + 12;
+        int height = metrics.getHeight() * 2 + 8;
+        g.setColor(Color.BLACK);
+        g.fillRect(4, 4, width, height);
+        g.setColor(Color.WHITE);
+        g.drawString(summary, 10, 8 + metrics.getAscent());
+        g.drawString(windowSize, 10, 8 + metrics.getHeight() + metrics.getAscent());
+    }
+}
@@ -0,0 +1,56 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A scene's share of the Animator: starts animations on the shared frame
+ * clock and remembers them, so the scene can cancel whatever it still has
+ * running when it closes.
+ *
+ * Steps run on the EDT, so they can change scene state that paintComponent
+ * reads without any locking, and a scene needs no threads of its own. Call
+ * everything here on the EDT.
+ */
+public class SceneClock {
+    private final List<Animator.Animation> owned = new ArrayList<>();
+
+    /**
+     * Run step straight away and then every periodMillis until it returns false
+     */
+    public Animator.Animation every(int periodMillis, BooleanSupplier step) {
+        return play(Animator.every(periodMillis, step));
+    }
+
+    /**
+     * Run action once, delayMillis from now
+     */
+    public Animator.Animation after(int delayMillis, Runnable action) {
+        return play(Animator.after(delayMillis, action));
+    }
+
+    /**
+     * Start an animation as part of this scene
+     */
+    public Animator.Animation play(Animator.Animation animation) {
+        owned.removeIf(Animator.Animation::isDone);
+        owned.add(animation);
+        return animation.start();
+    }
+
+    /**
+     * Cancel everything, e.g. when the scene closes
+     */
+    public void stop() {
+        for (Animator.Animation animation : new ArrayList<>(owned)) {
+            animation.cancel();
+        }
+        owned.clear();
+    }
+
+    public boolean isIdle() {
+        owned.removeIf(Animator.Animation::isDone);
+        return owned.isEmpty();
+    }
+}
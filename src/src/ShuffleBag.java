@@ -0,0 +1,85 @@
+package src;
+
+import java.util.Random;
+
+/**
+ * Draws indices in [0, size) without repeats until every index has been
+ * drawn, then starts a fresh shuffle.
+ *
+ * Instead of storing a shuffled array, the bag walks a keyed pseudo-random
+ * permutation (a small Feistel network over the next power of four, with
+ * cycle walking for values past size). State is a counter and four round
+ * keys, so a bag over a million-word bucket costs the same as one over
+ * twelve, and each draw is O(1) expected.
+ */
+public class ShuffleBag {
+    private static final int ROUNDS = 4;
+
+    private final int size;
+    private final int halfBits;
+    private final int halfMask;
+    private final long[] keys = new long[ROUNDS];
+    private final Random random;
+    private int drawn;
+
+    public ShuffleBag(int size, Random random) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Bag size must be positive");
+        }
+        this.size = size;
+        this.random = random;
+
+        // Smallest even bit width whose domain covers size, so at most 4x cycle walking
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, size - 1));
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = (1 << halfBits) - 1;
+
+        reshuffle();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Next index; every index appears once before any repeats
+     */
+    public int next() {
+        if (drawn == size) {
+            reshuffle();
+        }
+
+        // Values of the permutation that land past size are skipped by re-encrypting
+        int value = drawn++;
+        do {
+            value = permute(value);
+        } while (value >= size);
+        return value;
+    }
+
+    private void reshuffle() {
+        for (int i = 0; i < ROUNDS; i++) {
+            keys[i] = random.nextLong();
+        }
+        drawn = 0;
+    }
+
+    private int permute(int value) {
+        int left = value >>> halfBits;
+        int right = value & halfMask;
+        for (int i = 0; i < ROUNDS; i++) {
+            int mixed = (left ^ round(right, keys[i])) & halfMask;
+            left = right;
+            right = mixed;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private static int round(int value, long key) {
+        // SplitMix64 finaliser as the round function
+        long z = value + key;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31));
+    }
+}
@@ -0,0 +1,148 @@
+package src;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Decoded images kept under a memory budget, loaded on a small pool of
+ * background threads.
+ *
+ * get() hands back a future: already complete on a hit, otherwise completed
+ * by a decoder thread. Asking again for an image that is still loading joins
+ * the same load. Once over budget the least recently used images are dropped
+ * and will be decoded again if asked for. Thread-safe.
+ */
+public class SpriteCache<K> {
+    private final Function<K, BufferedImage> loader;
+    private final long budgetBytes;
+    private final ExecutorService decoders;
+
+    // Access-ordered, so iteration starts at the least recently used
+    private final LinkedHashMap<K, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, CompletableFuture<BufferedImage>> loading = new HashMap<>();
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param loader      decodes the image for a key; runs on a decoder thread
+     * @param budgetBytes roughly how much pixel memory to keep
+     * @param threads     decoder threads
+     */
+    public SpriteCache(Function<K, BufferedImage> loader, long budgetBytes, int threads) {
+        this.loader = loader;
+        this.budgetBytes = budgetBytes;
+        AtomicInteger count = new AtomicInteger();
+        this.decoders = Executors.newFixedThreadPool(Math.max(1, threads), task -> {
+            Thread thread = new Thread(task, "sprite-decoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            // Decoding should never get in the way of the EDT
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    /**
+     * The image if it is already decoded, otherwise null (without loading it)
+     */
+    public synchronized BufferedImage getIfPresent(K key) {
+        return images.get(key);
+    }
+
+    /**
+     * The image for a key, decoding it in the background if needed
+     */
+    public CompletableFuture<BufferedImage> get(K key) {
+        CompletableFuture<BufferedImage> future;
+        synchronized (this) {
+            BufferedImage image = images.get(key);
+            if (image != null) {
+                hits++;
+                return CompletableFuture.completedFuture(image);
+            }
+            CompletableFuture<BufferedImage> pending = loading.get(key);
+            if (pending != null) {
+                return pending;
+            }
+            misses++;
+            future = new CompletableFuture<>();
+            loading.put(key, future);
+        }
+
+        decoders.execute(() -> {
+            try {
+                BufferedImage image = loader.apply(key);
+                put(key, image);
+                future.complete(image);
+            } catch (Throwable e) {
+                // Errors too (e.g. a failed class initializer), or the key would stay loading forever
+                synchronized (this) {
+                    loading.remove(key);
+                }
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private synchronized void put(K key, BufferedImage image) {
+        loading.remove(key);
+        long bytes = bytesOf(image);
+        if (image == null || bytes > budgetBytes) {
+            return;
+        }
+
+        BufferedImage previous = images.put(key, image);
+        usedBytes += bytes - bytesOf(previous);
+
+        Iterator<Map.Entry<K, BufferedImage>> eldest = images.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<K, BufferedImage> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            usedBytes -= bytesOf(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Drop every decoded image
+     */
+    public synchronized void clear() {
+        images.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static long bytesOf(BufferedImage image) {
+        return image == null ? 0 : (long) image.getWidth() * image.getHeight() * 4;
+    }
+}
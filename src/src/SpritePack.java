@@ -0,0 +1,238 @@
+package src;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sprites decoded and scaled ahead of time, packed into one file.
+ *
+ * File layout (big-endian):
+ *   int magic ("KSP1"), int count,
+ *   count x (short name length, UTF-8 name, int width, int height, int pixel offset),
+ *   premultiplied ARGB pixels, one int each, row by row
+ *
+ * Names are asset paths without the extension, e.g. "Red/Bat_Red". The file
+ * is memory-mapped, so opening it only reads the index; loading a sprite is
+ * a bulk copy of its pixels with no PNG inflation. Instances are immutable
+ * and safe to share between threads.
+ *
+ * Build the pack from the asset folders with:
+ *   java src.SpritePack src/resources/assets src/resources/sprites/monsters.ksp [size]
+ */
+public class SpritePack {
+    private static final int MAGIC = 0x4B535031; // "KSP1"
+    private static final String RESOURCE = "/resources/sprites/monsters.ksp";
+
+    private final ByteBuffer buffer;
+    private final Map<String, int[]> index; // name -> {width, height, offset}
+
+    private SpritePack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a sprite pack file");
+        }
+        int count = buffer.getInt(4);
+        // Every index entry takes at least 14 bytes
+        if (count < 0 || 8 + 14L * count > buffer.capacity()) {
+            throw new IOException("Corrupt sprite pack: bad sprite count");
+        }
+
+        Map<String, int[]> entries = new HashMap<>();
+        ByteBuffer header = buffer.duplicate();
+        header.position(8);
+        for (int i = 0; i < count; i++) {
+            if (header.remaining() < 2) {
+                throw new IOException("Corrupt sprite pack: index cut short at entry " + i);
+            }
+            byte[] name = new byte[header.getShort() & 0xFFFF];
+            if (header.remaining() < name.length + 12) {
+                throw new IOException("Corrupt sprite pack: index cut short at entry " + i);
+            }
+            header.get(name);
+            int width = header.getInt();
+            int height = header.getInt();
+            int offset = header.getInt();
+            if (width <= 0 || height <= 0 || offset < 0
+                    || offset + (long) width * height * 4 > buffer.capacity()) {
+                throw new IOException("Corrupt sprite pack: bad entry " + i);
+            }
+            entries.put(new String(name, StandardCharsets.UTF_8), new int[]{width, height, offset});
+        }
+        this.index = entries;
+    }
+
+    /**
+     * Memory-map a pack file
+     */
+    public static SpritePack map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new SpritePack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The game's monster sprite pack, opened at most once per JVM. Null if the
+     * pack hasn't been built, in which case sprites come from the PNGs.
+     */
+    public static SpritePack monsters() {
+        return Shared.INSTANCE;
+    }
+
+    private static class Shared {
+        static final SpritePack INSTANCE = loadResource();
+
+        private static SpritePack loadResource() {
+            URL url = SpritePack.class.getResource(RESOURCE);
+            if (url == null) {
+                return null;
+            }
+
+            try {
+                if ("file".equals(url.getProtocol())) {
+                    return map(Paths.get(url.toURI()));
+                }
+                // Packed inside a jar: can't be mapped, read it onto the heap once
+                try (InputStream in = url.openStream()) {
+                    return new SpritePack(ByteBuffer.wrap(in.readAllBytes()));
+                }
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                // Runs in a class initializer: anything thrown here would break every later sprite load
+                System.err.println("Failed to load sprite pack " + RESOURCE + ": " + e);
+                return null;
+            }
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * Copy a sprite out of the pack, or null if it isn't there
+     */
+    public BufferedImage read(String name) {
+        int[] entry = index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        int width = entry[0];
+        int height = entry[1];
+        int[] pixels = new int[width * height];
+        // Absolute slice keeps the shared buffer's position untouched
+        IntBuffer source = buffer.duplicate().position(entry[2]).slice().asIntBuffer();
+        source.get(pixels);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        // setDataElements copies in without stopping Java2D from accelerating the image
+        image.getRaster().setDataElements(0, 0, width, height, pixels);
+        return image;
+    }
+
+    /**
+     * Pack every PNG one level below assetRoot (e.g. Red/Bat_Red.png), scaled to size x size
+     */
+    static byte[] encode(Path assetRoot, int size) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> folders = Files.newDirectoryStream(assetRoot, Files::isDirectory)) {
+            for (Path folder : folders) {
+                try (DirectoryStream<Path> pngs = Files.newDirectoryStream(folder, "*.png")) {
+                    for (Path png : pngs) {
+                        files.add(png);
+                    }
+                }
+            }
+        }
+        Collections.sort(files);
+
+        List<String> names = new ArrayList<>();
+        List<int[]> pixels = new ArrayList<>();
+        for (Path file : files) {
+            BufferedImage decoded = MonsterImageLoader.decodeNear(file.toUri().toURL(), size, size);
+            if (decoded == null) {
+                System.err.println("Skipping unreadable image " + file);
+                continue;
+            }
+            BufferedImage premultiplied = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g2d = premultiplied.createGraphics();
+            g2d.drawImage(MonsterImageLoader.scale(decoded, size, size), 0, 0, null);
+            g2d.dispose();
+
+            String fileName = file.getFileName().toString();
+            names.add(file.getParent().getFileName() + "/" + fileName.substring(0, fileName.length() - 4));
+            pixels.add(((DataBufferInt) premultiplied.getRaster().getDataBuffer()).getData());
+        }
+
+        int headerSize = 8;
+        for (String name : names) {
+            headerSize += 2 + name.getBytes(StandardCharsets.UTF_8).length + 12;
+        }
+        // Pixels start on an int boundary
+        int offset = (headerSize + 3) & ~3;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(offset + names.size() * size * size * 4);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(names.size());
+        for (String name : names) {
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(encoded.length);
+            out.write(encoded);
+            out.writeInt(size);
+            out.writeInt(size);
+            out.writeInt(offset);
+            offset += size * size * 4;
+        }
+        while (out.size() % 4 != 0) {
+            out.writeByte(0);
+        }
+        for (int[] sprite : pixels) {
+            for (int pixel : sprite) {
+                out.writeInt(pixel);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: java src.SpritePack <asset folder> <output.ksp> [size]");
+            return;
+        }
+        int size = args.length == 3 ? Integer.parseInt(args[2]) : MonsterImageLoader.DEFAULT_SIZE;
+
+        Path output = Paths.get(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        byte[] pack = encode(Paths.get(args[0]), size);
+        Files.write(output, pack);
+        System.out.println("Wrote " + ByteBuffer.wrap(pack).getInt(4) + " sprites (" + pack.length / 1024 + " KB) to " + output);
+    }
+}
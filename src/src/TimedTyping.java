@@ -1,53 +1,114 @@
 package src;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TimedTyping {
-    private List<String> wordBank;
+    // Basic spell words, used when no corpus file is available
+    private static final String[] DEFAULT_WORDS = {
+            "fireball", "icebolt", "lightning", "earthquake",
+            "tornado", "poison", "healing", "shield",
+            "attack", "defend", "slice", "stab"
+    };
+
+    // Share of challenge words picked for the player's weaknesses when a profile is set
+    private static final double ADAPTIVE_SHARE = 0.5;
+
+    private final WordBank wordBank;
+    private final List<String> addedWords;
+
+    // Challenge words by difficulty, with a no-repeat bag per bucket for this session
+    private WordDifficultyIndex difficultyIndex;
+    private final List<List<String>> addedByBucket = new ArrayList<>();
+    private ShuffleBag[] bags;
+
+    // When set, part of each challenge targets the player's weak bigrams
+    private TypingProfile typingProfile;
+    private AdaptiveWordSampler adaptiveSampler;
+
     private Random random;
     private Scanner scanner;
 
     public TimedTyping() {
-        this.wordBank = new ArrayList<>();
-        populateDefaultWordBank();
-        this.random = new Random();
+        this.wordBank = DefaultCorpus.INSTANCE;
+        this.addedWords = new ArrayList<>();
+        this.random = GameRandom.session().newStream(GameRandom.Purpose.CHALLENGE);
         this.scanner = new Scanner(System.in);
     }
 
     public TimedTyping(List<String> customWordBank) {
-        this.wordBank = new ArrayList<>(customWordBank);
-        this.random = new Random();
+        this.wordBank = WordCorpus.of(customWordBank);
+        this.addedWords = new ArrayList<>();
+        this.random = GameRandom.session().newStream(GameRandom.Purpose.CHALLENGE);
         this.scanner = new Scanner(System.in);
     }
 
+    public TimedTyping(WordBank wordBank) {
+        this(wordBank, GameRandom.session().newStream(GameRandom.Purpose.CHALLENGE));
+    }
+
+    public TimedTyping(WordBank wordBank, Random random) {
+        this.wordBank = wordBank;
+        this.addedWords = new ArrayList<>();
+        this.random = random;
+        this.scanner = new Scanner(System.in);
+    }
+
+    /**
+     * The default word bank, for callers that want their own TimedTyping over it
+     */
+    public static WordBank defaultWordBank() {
+        return DefaultCorpus.INSTANCE;
+    }
 
-    private void populateDefaultWordBank() {
-        // Basic spell words
-        String[] defaultWords = {
-                "fireball", "icebolt", "lightning", "earthquake",
-                "tornado", "poison", "healing", "shield",
-                "attack", "defend", "slice", "stab"
-        };
+    /**
+     * Default word bank, loaded once per JVM and shared read-only by every TimedTyping
+     */
+    private static class DefaultCorpus {
+        static final WordCorpus INSTANCE = loadDefaultCorpus();
 
-        // Add all words to the bank
-        for (String word : defaultWords) {
-            wordBank.add(word);
+        private static WordCorpus loadDefaultCorpus() {
+            WordCorpus corpus = WordCorpus.forLanguage("en");
+            if (corpus == null || corpus.size() == 0) {
+                corpus = WordCorpus.of(Arrays.asList(DEFAULT_WORDS));
+            }
+            return corpus;
         }
     }
 
 
+    /**
+     * Bias challenges towards what this player gets wrong or types slowly.
+     * Pass null to go back to plain difficulty-based words.
+     */
+    public void setTypingProfile(TypingProfile typingProfile) {
+        this.typingProfile = typingProfile;
+        this.adaptiveSampler = null;
+    }
+
+
     public void addWord(String word) {
-        wordBank.add(word);
+        addedWords.add(word);
+
+        // Also make it a candidate for challenges at its difficulty
+        if (difficultyIndex != null) {
+            int bucket = difficultyIndex.bucketForWord(word);
+            addedByBucket.get(bucket).add(word);
+            bags[bucket] = null;
+        }
     }
 
 
     public String getRandomWord() {
-        int index = random.nextInt(wordBank.size());
-        return wordBank.get(index);
+        int index = random.nextInt(wordBank.size() + addedWords.size());
+        if (index < wordBank.size()) {
+            return wordBank.get(index);
+        }
+        return addedWords.get(index - wordBank.size());
     }
 
 
@@ -60,8 +121,10 @@ public class TimedTyping {
             wordCount = Math.min(difficulty, 4); // Cap at 4 words
         }
 
+        // Words are drawn from the bucket matching the difficulty
+        int bucket = getDifficultyIndex().bucketForDifficulty(difficulty);
         for (int i = 0; i < wordCount; i++) {
-            challenge.append(getRandomWord());
+            challenge.append(drawWord(bucket));
             if (i < wordCount - 1) {
                 challenge.append(" ");
             }
@@ -70,6 +133,65 @@ public class TimedTyping {
         return challenge.toString();
     }
 
+    /**
+     * Draw a word from a difficulty bucket, falling back to the nearest
+     * non-empty bucket. Words don't repeat until the bucket is used up.
+     */
+    private String drawWord(int bucket) {
+        WordDifficultyIndex index = getDifficultyIndex();
+
+        int buckets = index.getBucketCount();
+        int chosen = -1;
+        for (int distance = 0; distance < buckets && chosen < 0; distance++) {
+            if (bucket - distance >= 0 && bucketSize(bucket - distance) > 0) {
+                chosen = bucket - distance;
+            } else if (bucket + distance < buckets && bucketSize(bucket + distance) > 0) {
+                chosen = bucket + distance;
+            }
+        }
+        if (chosen < 0) {
+            throw new IllegalStateException("Word bank is empty");
+        }
+
+        // Once the profile has enough data, some words go to the player's weak spots
+        if (typingProfile != null && typingProfile.isTrained() && random.nextDouble() < ADAPTIVE_SHARE) {
+            if (adaptiveSampler == null) {
+                adaptiveSampler = new AdaptiveWordSampler(wordBank, index, typingProfile);
+            }
+            int id = adaptiveSampler.draw(chosen, random);
+            if (id >= 0) {
+                return wordBank.get(id);
+            }
+        }
+
+        if (bags[chosen] == null) {
+            bags[chosen] = new ShuffleBag(bucketSize(chosen), random);
+        }
+        int n = bags[chosen].next();
+        if (n < index.bucketSize(chosen)) {
+            return wordBank.get(index.wordId(chosen, n));
+        }
+        return addedByBucket.get(chosen).get(n - index.bucketSize(chosen));
+    }
+
+    private int bucketSize(int bucket) {
+        return difficultyIndex.bucketSize(bucket) + addedByBucket.get(bucket).size();
+    }
+
+    private WordDifficultyIndex getDifficultyIndex() {
+        if (difficultyIndex == null) {
+            difficultyIndex = WordDifficultyIndex.forBank(wordBank);
+            bags = new ShuffleBag[difficultyIndex.getBucketCount()];
+            for (int b = 0; b < difficultyIndex.getBucketCount(); b++) {
+                addedByBucket.add(new ArrayList<>());
+            }
+            for (String word : addedWords) {
+                addedByBucket.get(difficultyIndex.bucketForWord(word)).add(word);
+            }
+        }
+        return difficultyIndex;
+    }
+
 
     public TypingResult processInputWithTimer(String targetText, int timeLimit) {
         System.out.println("Type this: " + targetText);
@@ -183,11 +305,17 @@ public class TimedTyping {
         private double accuracy;
         private String userInput;
         private boolean timedOut;
+        private int[] keyLatencies;
 
         public TypingResult(double accuracy, String userInput, boolean timedOut) {
+            this(accuracy, userInput, timedOut, null);
+        }
+
+        public TypingResult(double accuracy, String userInput, boolean timedOut, int[] keyLatencies) {
             this.accuracy = accuracy;
             this.userInput = userInput;
             this.timedOut = timedOut;
+            this.keyLatencies = keyLatencies;
         }
 
         public double getAccuracy() {
@@ -202,6 +330,13 @@ public class TimedTyping {
             return timedOut;
         }
 
+        /**
+         * Milliseconds before each typed character, or null if not timed
+         */
+        public int[] getKeyLatencies() {
+            return keyLatencies;
+        }
+
         @Override
         public String toString() {
             if (timedOut) {
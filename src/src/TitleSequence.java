@@ -3,7 +3,6 @@ package src;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import javax.swing.Timer;
 
 public class TitleSequence {
     private static JFrame frame;
@@ -11,15 +10,17 @@ public class TitleSequence {
     private static JLabel backgroundLabel;
     private static float currentAlpha = 0f;
     private static final int FADE_DURATION = 1000; // 1 second fade
-    private static final int FPS = 60;
     private static JPanel currentClickArea;
 
     public static void welcomeScreen() {
+        // Already started by Main; makes sure when the title screen is run on its own
+        AssetLoader.preload();
+
         frame = new JFrame("Game Screen");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         try {
-            ImageIcon welcomeIcon = new ImageIcon(TitleSequence.class.getResource("/resources/welcomeGame.png"));
+            ImageIcon welcomeIcon = AssetLoader.getImage("/resources/welcomeGame.png");
             backgroundLabel = new JLabel(welcomeIcon);
 
             // Black overlay for fading
@@ -43,6 +44,7 @@ public class TitleSequence {
             layeredPane.setLayout(new OverlayLayout(layeredPane));
             layeredPane.add(backgroundLabel, Integer.valueOf(0));
             layeredPane.add(blackOverlay, Integer.valueOf(1));
+            layeredPane.add(createLoadingPanel(), Integer.valueOf(1));
             layeredPane.add(currentClickArea, Integer.valueOf(2));
 
             frame.setContentPane(layeredPane);
@@ -56,6 +58,35 @@ public class TitleSequence {
         }
     }
 
+    /**
+     * Thin bar along the bottom showing startup asset loading; hides itself when done
+     */
+    private static JPanel createLoadingPanel() {
+        JProgressBar loadingBar = new JProgressBar();
+        loadingBar.setPreferredSize(new Dimension(0, 6));
+        loadingBar.setBorderPainted(false);
+        loadingBar.setForeground(Color.decode("#345f92"));
+        loadingBar.setBackground(new Color(0, 0, 0, 0));
+        loadingBar.setOpaque(false);
+
+        JPanel loadingPanel = new JPanel(new BorderLayout());
+        loadingPanel.setOpaque(false);
+        loadingPanel.add(loadingBar, BorderLayout.SOUTH);
+
+        AssetLoader.addProgressListener(new AssetLoader.ProgressListener() {
+            @Override
+            public void progress(int loaded, int total) {
+                loadingBar.setMaximum(Math.max(1, total));
+                loadingBar.setValue(loaded);
+                if (total > 0 && loaded >= total) {
+                    loadingPanel.setVisible(false);
+                    AssetLoader.removeProgressListener(this);
+                }
+            }
+        });
+        return loadingPanel;
+    }
+
     private static JPanel createWelcomeClickArea() {
         JPanel clickArea = new JPanel();
         clickArea.setOpaque(false);
@@ -78,30 +109,11 @@ public class TitleSequence {
             ((JLayeredPane)frame.getContentPane()).remove(currentClickArea);
         }
 
-        // Fade out timer
-        Timer fadeOutTimer = new Timer(FADE_DURATION/FPS, null);
-        fadeOutTimer.addActionListener(new ActionListener() {
-            long startTime = -1;
-
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (startTime < 0) {
-                    startTime = System.currentTimeMillis();
-                }
-
-                long elapsed = System.currentTimeMillis() - startTime;
-                currentAlpha = (float)elapsed / FADE_DURATION;
-
-                if (currentAlpha >= 1.0f) {
-                    currentAlpha = 1.0f;
-                    fadeOutTimer.stop();
-                    transitionToNarrationScene();
-                }
-
-                blackOverlay.repaint();
-            }
-        });
-        fadeOutTimer.start();
+        // Fade to black, then on to the narration
+        Animator.tween(FADE_DURATION, Animator.Easing.LINEAR, 0, 1, value -> currentAlpha = (float) value)
+                .repaints(blackOverlay)
+                .onComplete(TitleSequence::transitionToNarrationScene)
+                .start();
     }
 
     private static void transitionToNarrationScene() {
@@ -113,7 +125,7 @@ public class TitleSequence {
         narrationFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         // Load the background image
-        ImageIcon narrationBg = new ImageIcon(TitleSequence.class.getResource("/resources/cinnarration.png"));
+        ImageIcon narrationBg = AssetLoader.getImage("/resources/cinnarration.png");
 
         // Create background panel
         JPanel backgroundPanel = new JPanel(new BorderLayout()) {
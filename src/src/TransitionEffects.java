@@ -1,49 +1,30 @@
 package src.utils;
 
+import src.Animator;
+
 import javax.swing.*;
-import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 
 public class TransitionEffects {
-    public static void fadeOut(JComponent component, Runnable onComplete) {
-        Timer timer = new Timer(30, null);
-        final float[] opacity = {1.0f};
+    // Current opacity of a fading component, as a client property painting code can read
+    public static final String OPACITY = "TransitionEffects.opacity";
 
-        timer.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                opacity[0] -= 0.05f;
-                if (opacity[0] <= 0) {
-                    opacity[0] = 0;
-                    timer.stop();
-                    onComplete.run();
-                }
-                component.repaint();
-            }
-        });
+    private static final int FADE_MILLIS = 600;
 
-        timer.start();
+    public static void fadeOut(JComponent component, Runnable onComplete) {
+        Animator.tween(FADE_MILLIS, Animator.Easing.LINEAR, 1, 0,
+                        value -> component.putClientProperty(OPACITY, (float) value))
+                .repaints(component)
+                .onComplete(onComplete)
+                .start();
     }
 
     public static void fadeIn(JComponent component) {
         component.setVisible(false);
-        Timer timer = new Timer(30, null);
-        final float[] opacity = {0.0f};
-
-        timer.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                opacity[0] += 0.05f;
-                if (opacity[0] >= 1) {
-                    opacity[0] = 1;
-                    timer.stop();
-                }
-                component.setVisible(true);
-                component.repaint();
-            }
-        });
-
-        timer.start();
+        Animator.tween(FADE_MILLIS, Animator.Easing.LINEAR, 0, 1, value -> {
+                    component.putClientProperty(OPACITY, (float) value);
+                    component.setVisible(true);
+                })
+                .repaints(component)
+                .start();
     }
-}
\ No newline at end of file
+}
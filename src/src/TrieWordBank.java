@@ -0,0 +1,368 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Word bank stored as a minimal DAWG (a trie with shared suffixes merged).
+ *
+ * After building, the graph is flattened into a few primitive arrays: each
+ * node has an edge range and a count of the words below it, and each edge is
+ * a char label plus a target node. Shared prefixes and suffixes are stored
+ * once, so a real dictionary takes a small fraction of the heap an
+ * ArrayList<String> would. The per-node word counts make get(index) (the
+ * index-th word in sorted order), random sampling and prefix counts cheap,
+ * and prefix enumeration only visits matching words.
+ */
+public class TrieWordBank implements WordBank {
+    private static final int ROOT = 0;
+
+    // Per node: first edge (edges of node n are [edgeStart[n], edgeStart[n + 1]))
+    private final int[] edgeStart;
+    // Per node: words below it, shifted left once, low bit set if the node ends a word
+    private final int[] nodeInfo;
+    // Per edge, sorted by label within a node
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+
+    private TrieWordBank(int[] edgeStart, int[] nodeInfo, char[] edgeLabel, int[] edgeTarget) {
+        this.edgeStart = edgeStart;
+        this.nodeInfo = nodeInfo;
+        this.edgeLabel = edgeLabel;
+        this.edgeTarget = edgeTarget;
+    }
+
+    public static TrieWordBank of(Collection<String> words) {
+        Builder builder = new Builder();
+        for (String word : words) {
+            builder.addWord(word);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copy every word of another bank, such as a mapped corpus
+     */
+    public static TrieWordBank of(WordBank bank) {
+        Builder builder = new Builder();
+        for (int i = 0; i < bank.size(); i++) {
+            builder.addWord(bank.get(i));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return wordCount(ROOT);
+    }
+
+    /**
+     * The index-th word in sorted order
+     */
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Word " + index + " of " + size());
+        }
+
+        StringBuilder word = new StringBuilder();
+        int node = ROOT;
+        int remaining = index;
+        while (true) {
+            if (isTerminal(node)) {
+                if (remaining == 0) {
+                    return word.toString();
+                }
+                remaining--;
+            }
+            // Skip whole subtrees until the one holding the word
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                int below = wordCount(edgeTarget[e]);
+                if (remaining < below) {
+                    word.append(edgeLabel[e]);
+                    node = edgeTarget[e];
+                    break;
+                }
+                remaining -= below;
+            }
+        }
+    }
+
+    public boolean contains(String word) {
+        int node = walk(word);
+        return node >= 0 && isTerminal(node);
+    }
+
+    /**
+     * Number of words starting with prefix
+     */
+    public int countWithPrefix(String prefix) {
+        int node = walk(prefix);
+        return node < 0 ? 0 : wordCount(node);
+    }
+
+    /**
+     * Words starting with prefix in sorted order, at most limit of them
+     */
+    public List<String> wordsWithPrefix(String prefix, int limit) {
+        List<String> words = new ArrayList<>();
+        int node = walk(prefix);
+        if (node >= 0 && limit > 0) {
+            collect(node, new StringBuilder(prefix), words, limit);
+        }
+        return words;
+    }
+
+    /**
+     * Number of nodes and edges, for comparing memory use
+     */
+    public int nodeCount() {
+        return nodeInfo.length;
+    }
+
+    public int edgeCount() {
+        return edgeLabel.length;
+    }
+
+    private void collect(int node, StringBuilder word, List<String> words, int limit) {
+        if (isTerminal(node)) {
+            words.add(word.toString());
+        }
+        for (int e = edgeStart[node]; e < edgeStart[node + 1] && words.size() < limit; e++) {
+            word.append(edgeLabel[e]);
+            collect(edgeTarget[e], word, words, limit);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    /**
+     * Node reached by following text from the root, or -1
+     */
+    private int walk(String text) {
+        int node = ROOT;
+        for (int i = 0; i < text.length() && node >= 0; i++) {
+            node = child(node, text.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char label) {
+        int from = edgeStart[node];
+        int to = edgeStart[node + 1] - 1;
+        while (from <= to) {
+            int middle = (from + to) >>> 1;
+            char found = edgeLabel[middle];
+            if (found < label) {
+                from = middle + 1;
+            } else if (found > label) {
+                to = middle - 1;
+            } else {
+                return edgeTarget[middle];
+            }
+        }
+        return -1;
+    }
+
+    private boolean isTerminal(int node) {
+        return (nodeInfo[node] & 1) != 0;
+    }
+
+    private int wordCount(int node) {
+        return nodeInfo[node] >>> 1;
+    }
+
+    /**
+     * Collects words, then builds the minimal DAWG with Daciuk's incremental
+     * algorithm over the sorted, de-duplicated list.
+     */
+    public static class Builder {
+        private final List<String> words = new ArrayList<>();
+
+        public Builder addWord(String word) {
+            words.add(word);
+            return this;
+        }
+
+        public TrieWordBank build() {
+            String[] sorted = words.toArray(new String[0]);
+            Arrays.sort(sorted);
+
+            BuildNode root = new BuildNode();
+            Map<BuildNode, BuildNode> register = new HashMap<>();
+            String previous = null;
+
+            for (String word : sorted) {
+                if (word.equals(previous)) {
+                    continue;
+                }
+                if (previous == null) {
+                    previous = "";
+                }
+
+                int common = 0;
+                while (common < word.length() && common < previous.length()
+                        && word.charAt(common) == previous.charAt(common)) {
+                    common++;
+                }
+
+                // Everything of the previous word past the shared prefix is final now
+                BuildNode node = root;
+                for (int i = 0; i < common; i++) {
+                    node = node.lastChild();
+                }
+                if (node.childCount > 0) {
+                    replaceOrRegister(node, register);
+                }
+
+                for (int i = common; i < word.length(); i++) {
+                    node = node.addChild(word.charAt(i));
+                }
+                node.terminal = true;
+                previous = word;
+            }
+            if (root.childCount > 0) {
+                replaceOrRegister(root, register);
+            }
+
+            return flatten(root);
+        }
+
+        /**
+         * Minimise the last child chain of node bottom-up, merging any node
+         * equivalent to one already registered
+         */
+        private static void replaceOrRegister(BuildNode node, Map<BuildNode, BuildNode> register) {
+            BuildNode child = node.lastChild();
+            if (child.childCount > 0) {
+                replaceOrRegister(child, register);
+            }
+            BuildNode existing = register.get(child);
+            if (existing != null) {
+                node.children[node.childCount - 1] = existing;
+            } else {
+                register.put(child, child);
+            }
+        }
+
+        private static TrieWordBank flatten(BuildNode root) {
+            // Number nodes breadth-first so the root is 0 and ids are dense
+            List<BuildNode> order = new ArrayList<>();
+            Map<BuildNode, Integer> ids = new IdentityHashMap<>();
+            order.add(root);
+            ids.put(root, 0);
+            int edges = 0;
+            for (int i = 0; i < order.size(); i++) {
+                BuildNode node = order.get(i);
+                edges += node.childCount;
+                for (int c = 0; c < node.childCount; c++) {
+                    BuildNode child = node.children[c];
+                    if (!ids.containsKey(child)) {
+                        ids.put(child, order.size());
+                        order.add(child);
+                    }
+                }
+            }
+
+            int nodes = order.size();
+            int[] edgeStart = new int[nodes + 1];
+            int[] nodeInfo = new int[nodes];
+            char[] edgeLabel = new char[edges];
+            int[] edgeTarget = new int[edges];
+
+            int edge = 0;
+            for (int n = 0; n < nodes; n++) {
+                BuildNode node = order.get(n);
+                edgeStart[n] = edge;
+                for (int c = 0; c < node.childCount; c++) {
+                    edgeLabel[edge] = node.labels[c];
+                    edgeTarget[edge] = ids.get(node.children[c]);
+                    edge++;
+                }
+            }
+            edgeStart[nodes] = edge;
+
+            // Shared nodes are reachable along many paths, so memoise the counts
+            int[] counts = new int[nodes];
+            Arrays.fill(counts, -1);
+            countWords(ROOT, edgeStart, edgeTarget, order, counts);
+            for (int n = 0; n < nodes; n++) {
+                nodeInfo[n] = (counts[n] << 1) | (order.get(n).terminal ? 1 : 0);
+            }
+
+            return new TrieWordBank(edgeStart, nodeInfo, edgeLabel, edgeTarget);
+        }
+
+        private static int countWords(int node, int[] edgeStart, int[] edgeTarget,
+                                      List<BuildNode> order, int[] counts) {
+            if (counts[node] >= 0) {
+                return counts[node];
+            }
+            int count = order.get(node).terminal ? 1 : 0;
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                count += countWords(edgeTarget[e], edgeStart, edgeTarget, order, counts);
+            }
+            counts[node] = count;
+            return count;
+        }
+    }
+
+    /**
+     * Mutable node used only while building. Equality is structural (same
+     * terminal flag, same labels, identical children) so the register can
+     * find equivalent nodes.
+     */
+    private static class BuildNode {
+        boolean terminal;
+        char[] labels = new char[2];
+        BuildNode[] children = new BuildNode[2];
+        int childCount;
+
+        BuildNode lastChild() {
+            return children[childCount - 1];
+        }
+
+        BuildNode addChild(char label) {
+            if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            BuildNode child = new BuildNode();
+            labels[childCount] = label;
+            children[childCount] = child;
+            childCount++;
+            return child;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BuildNode)) {
+                return false;
+            }
+            BuildNode node = (BuildNode) other;
+            if (terminal != node.terminal || childCount != node.childCount) {
+                return false;
+            }
+            for (int i = 0; i < childCount; i++) {
+                if (labels[i] != node.labels[i] || children[i] != node.children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = terminal ? 1 : 0;
+            for (int i = 0; i < childCount; i++) {
+                hash = hash * 31 + labels[i];
+                hash = hash * 31 + System.identityHashCode(children[i]);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package src;
+
+/**
+ * Character-level alignment between a challenge and what the player typed.
+ *
+ * The alignment is returned as a compact edit script: an int[] of runs,
+ * each packing an operation in the low two bits and a run length in the
+ * rest. It is computed with Hirschberg's divide and conquer, so memory is
+ * linear in the input length rather than the full DP matrix.
+ */
+public class TypingAlignment {
+    // Operations, relative to the target text
+    public static final int MATCH = 0;       // typed correctly
+    public static final int SUBSTITUTE = 1;  // typed the wrong character
+    public static final int DELETE = 2;      // target character was dropped
+    public static final int INSERT = 3;      // extra character typed
+
+    private static final int OP_BITS = 2;
+    private static final int OP_MASK = (1 << OP_BITS) - 1;
+
+    private final CharSequence target;
+    private final CharSequence input;
+
+    // Score rows for the forward and reverse passes
+    private final int[] forward;
+    private final int[] reverse;
+
+    // Edit script being built
+    private int[] runs = new int[8];
+    private int runCount = 0;
+
+    private TypingAlignment(CharSequence target, CharSequence input) {
+        this.target = target;
+        this.input = input;
+        this.forward = new int[input.length() + 1];
+        this.reverse = new int[input.length() + 1];
+    }
+
+    /**
+     * Edit script turning target into input
+     */
+    public static int[] align(CharSequence target, CharSequence input) {
+        TypingAlignment alignment = new TypingAlignment(target, input);
+
+        // Shared prefix and suffix are plain matches
+        int n = target.length();
+        int m = input.length();
+        int prefix = 0;
+        while (prefix < n && prefix < m && target.charAt(prefix) == input.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < n - prefix && suffix < m - prefix
+                && target.charAt(n - 1 - suffix) == input.charAt(m - 1 - suffix)) {
+            suffix++;
+        }
+
+        alignment.emit(MATCH, prefix);
+        alignment.solve(prefix, n - suffix, prefix, m - suffix);
+        alignment.emit(MATCH, suffix);
+
+        int[] script = new int[alignment.runCount];
+        System.arraycopy(alignment.runs, 0, script, 0, alignment.runCount);
+        return script;
+    }
+
+    public static int op(int run) {
+        return run & OP_MASK;
+    }
+
+    public static int length(int run) {
+        return run >>> OP_BITS;
+    }
+
+    /**
+     * Total number of edits in a script, equal to the edit distance
+     */
+    public static int distance(int[] script) {
+        int edits = 0;
+        for (int run : script) {
+            if (op(run) != MATCH) {
+                edits += length(run);
+            }
+        }
+        return edits;
+    }
+
+    /**
+     * Number of characters affected by one kind of operation
+     */
+    public static int count(int[] script, int op) {
+        int total = 0;
+        for (int run : script) {
+            if (op(run) == op) {
+                total += length(run);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Three-line console view: the target, what was typed, and a marker line
+     * (^ wrong character, - dropped, + extra)
+     */
+    public static String renderConsole(String target, String input, int[] script) {
+        StringBuilder targetLine = new StringBuilder("Target: ");
+        StringBuilder inputLine = new StringBuilder("Typed:  ");
+        StringBuilder markerLine = new StringBuilder("        ");
+        int t = 0;
+        int i = 0;
+
+        for (int run : script) {
+            for (int k = 0; k < length(run); k++) {
+                switch (op(run)) {
+                    case MATCH:
+                        targetLine.append(target.charAt(t++));
+                        inputLine.append(input.charAt(i++));
+                        markerLine.append(' ');
+                        break;
+                    case SUBSTITUTE:
+                        targetLine.append(target.charAt(t++));
+                        inputLine.append(input.charAt(i++));
+                        markerLine.append('^');
+                        break;
+                    case DELETE:
+                        targetLine.append(target.charAt(t++));
+                        inputLine.append('_');
+                        markerLine.append('-');
+                        break;
+                    default:
+                        targetLine.append('_');
+                        inputLine.append(input.charAt(i++));
+                        markerLine.append('+');
+                        break;
+                }
+            }
+        }
+
+        return targetLine + "\n" + inputLine + "\n" + markerLine;
+    }
+
+    /**
+     * HTML for a Swing label: the target with typos highlighted. Wrong
+     * characters show what was typed, dropped ones are underscores and extra
+     * ones are struck through.
+     */
+    public static String renderHtml(String target, String input, int[] script) {
+        StringBuilder html = new StringBuilder("<html>");
+        int t = 0;
+        int i = 0;
+
+        for (int run : script) {
+            int length = length(run);
+            switch (op(run)) {
+                case MATCH:
+                    appendEscaped(html, target, t, t + length);
+                    t += length;
+                    i += length;
+                    break;
+                case SUBSTITUTE:
+                    html.append("<font color='red'>");
+                    appendEscaped(html, input, i, i + length);
+                    html.append("</font>");
+                    t += length;
+                    i += length;
+                    break;
+                case DELETE:
+                    html.append("<font color='red'>");
+                    for (int k = 0; k < length; k++) {
+                        html.append('_');
+                    }
+                    html.append("</font>");
+                    t += length;
+                    break;
+                default:
+                    html.append("<font color='red'><s>");
+                    appendEscaped(html, input, i, i + length);
+                    html.append("</s></font>");
+                    i += length;
+                    break;
+            }
+        }
+
+        return html.append("</html>").toString();
+    }
+
+    private static void appendEscaped(StringBuilder html, String text, int from, int to) {
+        for (int k = from; k < to; k++) {
+            char c = text.charAt(k);
+            switch (c) {
+                case '<':
+                    html.append("&lt;");
+                    break;
+                case '>':
+                    html.append("&gt;");
+                    break;
+                case '&':
+                    html.append("&amp;");
+                    break;
+                case ' ':
+                    html.append("&nbsp;");
+                    break;
+                default:
+                    html.append(c);
+            }
+        }
+    }
+
+    /**
+     * Align target[tFrom, tTo) with input[iFrom, iTo) and emit the runs
+     */
+    private void solve(int tFrom, int tTo, int iFrom, int iTo) {
+        int n = tTo - tFrom;
+        int m = iTo - iFrom;
+
+        if (n == 0) {
+            emit(INSERT, m);
+            return;
+        }
+        if (m == 0) {
+            emit(DELETE, n);
+            return;
+        }
+        if (n == 1) {
+            alignSingleTarget(target.charAt(tFrom), iFrom, iTo);
+            return;
+        }
+        if (m == 1) {
+            alignSingleInput(input.charAt(iFrom), tFrom, tTo);
+            return;
+        }
+
+        // Split the target in half and find where the optimal path crosses the middle
+        int tMid = tFrom + n / 2;
+        forwardScores(tFrom, tMid, iFrom, iTo);
+        reverseScores(tMid, tTo, iFrom, iTo);
+
+        int split = 0;
+        int best = Integer.MAX_VALUE;
+        for (int k = 0; k <= m; k++) {
+            int cost = forward[k] + reverse[m - k];
+            if (cost < best) {
+                best = cost;
+                split = k;
+            }
+        }
+
+        solve(tFrom, tMid, iFrom, iFrom + split);
+        solve(tMid, tTo, iFrom + split, iTo);
+    }
+
+    /**
+     * Last DP row of target[tFrom, tTo) against every prefix of input[iFrom, iTo)
+     */
+    private void forwardScores(int tFrom, int tTo, int iFrom, int iTo) {
+        int m = iTo - iFrom;
+        for (int j = 0; j <= m; j++) {
+            forward[j] = j;
+        }
+        for (int t = tFrom; t < tTo; t++) {
+            char c = target.charAt(t);
+            int diagonal = forward[0];
+            forward[0] = diagonal + 1;
+            for (int j = 1; j <= m; j++) {
+                int above = forward[j];
+                int value = diagonal + (input.charAt(iFrom + j - 1) == c ? 0 : 1);
+                value = Math.min(value, above + 1);
+                value = Math.min(value, forward[j - 1] + 1);
+                forward[j] = value;
+                diagonal = above;
+            }
+        }
+    }
+
+    /**
+     * Same as forwardScores but on the reversed strings, so reverse[k] is the
+     * cost of aligning target[tFrom, tTo) with the last k characters of the input
+     */
+    private void reverseScores(int tFrom, int tTo, int iFrom, int iTo) {
+        int m = iTo - iFrom;
+        for (int j = 0; j <= m; j++) {
+            reverse[j] = j;
+        }
+        for (int t = tTo - 1; t >= tFrom; t--) {
+            char c = target.charAt(t);
+            int diagonal = reverse[0];
+            reverse[0] = diagonal + 1;
+            for (int j = 1; j <= m; j++) {
+                int above = reverse[j];
+                int value = diagonal + (input.charAt(iTo - j) == c ? 0 : 1);
+                value = Math.min(value, above + 1);
+                value = Math.min(value, reverse[j - 1] + 1);
+                reverse[j] = value;
+                diagonal = above;
+            }
+        }
+    }
+
+    private void alignSingleTarget(char c, int iFrom, int iTo) {
+        for (int j = iFrom; j < iTo; j++) {
+            if (input.charAt(j) == c) {
+                emit(INSERT, j - iFrom);
+                emit(MATCH, 1);
+                emit(INSERT, iTo - j - 1);
+                return;
+            }
+        }
+        emit(SUBSTITUTE, 1);
+        emit(INSERT, iTo - iFrom - 1);
+    }
+
+    private void alignSingleInput(char c, int tFrom, int tTo) {
+        for (int t = tFrom; t < tTo; t++) {
+            if (target.charAt(t) == c) {
+                emit(DELETE, t - tFrom);
+                emit(MATCH, 1);
+                emit(DELETE, tTo - t - 1);
+                return;
+            }
+        }
+        emit(SUBSTITUTE, 1);
+        emit(DELETE, tTo - tFrom - 1);
+    }
+
+    private void emit(int op, int length) {
+        if (length <= 0) {
+            return;
+        }
+        // Extend the previous run when it is the same operation
+        if (runCount > 0 && op(runs[runCount - 1]) == op) {
+            runs[runCount - 1] += length << OP_BITS;
+            return;
+        }
+        if (runCount == runs.length) {
+            int[] grown = new int[runs.length * 2];
+            System.arraycopy(runs, 0, grown, 0, runCount);
+            runs = grown;
+        }
+        runs[runCount++] = (length << OP_BITS) | op;
+    }
+}
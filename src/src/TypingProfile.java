@@ -0,0 +1,198 @@
+package src;
+
+/**
+ * How a player types: per-key and per-bigram error rates and keystroke
+ * latencies, kept as exponentially weighted moving averages so recent
+ * attempts count more than old ones.
+ *
+ * Keys are the letters a-z (case folded) plus one slot for everything else,
+ * and bigram (a, b) means typing b right after a. All statistics live in
+ * flat primitive arrays indexed by key or by first * KEYS + second, so
+ * recording an attempt is a single pass over its alignment with no
+ * allocation beyond the alignment itself. Methods are synchronized because
+ * challenges may be prepared on a background thread while results are
+ * recorded on the EDT.
+ */
+public class TypingProfile {
+    public static final int KEYS = 27;
+    public static final int BIGRAMS = KEYS * KEYS;
+    public static final int OTHER_KEY = KEYS - 1;
+
+    // Weight of the newest observation once a key has some history
+    private static final double ALPHA = 0.1;
+
+    // Pauses longer than this are thinking, not typing
+    private static final int MAX_LATENCY_MS = 1500;
+
+    // Observed characters needed before the profile is worth acting on
+    private static final int MIN_TRAINED_SAMPLES = 100;
+
+    // Weakness every bigram gets, so ones never seen still come up sometimes
+    private static final double BASE_WEAKNESS = 0.05;
+
+    private final double[] keyError = new double[KEYS];
+    private final double[] keyLatency = new double[KEYS];
+    private final int[] keySamples = new int[KEYS];
+
+    private final double[] bigramError = new double[BIGRAMS];
+    private final double[] bigramLatency = new double[BIGRAMS];
+    private final int[] bigramSamples = new int[BIGRAMS];
+
+    private double meanLatency;
+    private int totalSamples;
+
+    // Bumped on every recorded attempt so samplers know to refresh their weights
+    private int version;
+
+    public static int keyIndex(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        return OTHER_KEY;
+    }
+
+    public static int bigramIndex(int firstKey, int secondKey) {
+        return firstKey * KEYS + secondKey;
+    }
+
+    /**
+     * Update the profile from one attempt at a challenge. Timed out attempts
+     * say nothing about individual keys and are ignored.
+     */
+    public void record(String target, TimedTyping.TypingResult result) {
+        record(target, result, null);
+    }
+
+    /**
+     * As record(target, result), reusing an alignment the caller already has:
+     * script must be TypingAlignment.align(target, result.getUserInput()),
+     * or null to have it computed here
+     */
+    public synchronized void record(String target, TimedTyping.TypingResult result, int[] script) {
+        if (result == null || result.isTimedOut() || target == null) {
+            return;
+        }
+
+        String input = result.getUserInput();
+        int[] latencies = result.getKeyLatencies();
+        if (script == null) {
+            script = TypingAlignment.align(target, input);
+        }
+
+        int t = 0;
+        int i = 0;
+        int previousKey = -1;
+        // An extra typed character counts against the target character after it
+        boolean extraTyped = false;
+
+        for (int run : script) {
+            int op = TypingAlignment.op(run);
+            for (int k = 0; k < TypingAlignment.length(run); k++) {
+                if (op == TypingAlignment.INSERT) {
+                    extraTyped = true;
+                    i++;
+                    continue;
+                }
+
+                int key = keyIndex(target.charAt(t));
+                boolean error = op != TypingAlignment.MATCH || extraTyped;
+                int latency = op == TypingAlignment.MATCH && latencies != null && i < latencies.length
+                        ? latencies[i] : -1;
+                observe(previousKey, key, error, latency);
+
+                previousKey = key;
+                extraTyped = false;
+                t++;
+                if (op != TypingAlignment.DELETE) {
+                    i++;
+                }
+            }
+        }
+        version++;
+    }
+
+    private void observe(int previousKey, int key, boolean error, int latency) {
+        double errorValue = error ? 1.0 : 0.0;
+        keyError[key] = blend(keyError[key], errorValue, keySamples[key]);
+        keySamples[key]++;
+
+        boolean timed = latency >= 0 && latency <= MAX_LATENCY_MS;
+        if (timed) {
+            keyLatency[key] = blendLatency(keyLatency[key], latency);
+            meanLatency = blendLatency(meanLatency, latency);
+        }
+
+        if (previousKey >= 0) {
+            int bigram = bigramIndex(previousKey, key);
+            bigramError[bigram] = blend(bigramError[bigram], errorValue, bigramSamples[bigram]);
+            bigramSamples[bigram]++;
+            if (timed) {
+                bigramLatency[bigram] = blendLatency(bigramLatency[bigram], latency);
+            }
+        }
+        totalSamples++;
+    }
+
+    /**
+     * EWMA step; the first few samples use a plain running mean so early
+     * values aren't dragged towards zero
+     */
+    private static double blend(double average, double value, int samples) {
+        double rate = Math.max(ALPHA, 1.0 / (samples + 1));
+        return average + rate * (value - average);
+    }
+
+    /**
+     * Latencies use 0 for "no data yet"
+     */
+    private static double blendLatency(double average, double value) {
+        return average == 0 ? value : average + ALPHA * (value - average);
+    }
+
+    /**
+     * How much practice a bigram needs, always positive. Combines its error
+     * rate, half the error rate of its second key, and how much slower than
+     * the player's average it is typed.
+     */
+    public synchronized double bigramWeakness(int bigram) {
+        int key = bigram % KEYS;
+        double weakness = BASE_WEAKNESS + bigramError[bigram] + 0.5 * keyError[key];
+        if (meanLatency > 0 && bigramLatency[bigram] > 0) {
+            weakness += Math.max(0, bigramLatency[bigram] / meanLatency - 1.0);
+        }
+        return weakness;
+    }
+
+    public synchronized double getKeyErrorRate(char c) {
+        return keyError[keyIndex(c)];
+    }
+
+    /**
+     * Average milliseconds to type a key after the previous one, or 0 if unknown
+     */
+    public synchronized double getKeyLatency(char c) {
+        return keyLatency[keyIndex(c)];
+    }
+
+    public synchronized double getBigramErrorRate(char first, char second) {
+        return bigramError[bigramIndex(keyIndex(first), keyIndex(second))];
+    }
+
+    public synchronized double getMeanLatency() {
+        return meanLatency;
+    }
+
+    /**
+     * Whether enough has been recorded for the weaknesses to mean anything
+     */
+    public synchronized boolean isTrained() {
+        return totalSamples >= MIN_TRAINED_SAMPLES;
+    }
+
+    public synchronized int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,171 @@
+package src;
+
+import java.util.Random;
+
+/**
+ * Base for synthetic typists that stand in for a player in simulations and
+ * load tests.
+ *
+ * A model "types" a challenge by pressing keys with a latency in
+ * milliseconds each. The base class turns those keystrokes into the same
+ * TypingResult the game builds for a real attempt: a time out if the keys
+ * took longer than the time limit, otherwise the accuracy from the edit
+ * distance. Keystroke buffers and the distance engine are reused, so typing a
+ * challenge allocates only the typed String and its result.
+ */
+public abstract class TypistModel implements BattleEngine.Typist {
+    // QWERTY rows, for typos that hit a neighbouring key
+    private static final String[] ROWS = {"qwertyuiop", "asdfghjkl", "zxcvbnm"};
+    private static final char[][] NEIGHBOURS = buildNeighbours();
+
+    protected final Random random;
+    private final EditDistance distance = new EditDistance();
+
+    // Keys pressed for the current challenge
+    private char[] typed = new char[32];
+    private int[] latencies = new int[32];
+    private int length;
+    private long elapsedMillis;
+
+    private boolean recordLatencies;
+    private boolean haveSpareGaussian;
+    private double spareGaussian;
+
+    protected TypistModel(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Press the keys for a challenge, in order, through press()
+     */
+    protected abstract void typeChallenge(String target);
+
+    /**
+     * Whether results carry per-key latencies (for TypingProfile). Off by
+     * default since it costs an array per result.
+     */
+    public void setRecordLatencies(boolean recordLatencies) {
+        this.recordLatencies = recordLatencies;
+    }
+
+    @Override
+    public TimedTyping.TypingResult type(String challenge, int timeLimit) {
+        length = 0;
+        elapsedMillis = 0;
+        typeChallenge(challenge);
+
+        if (elapsedMillis > timeLimit * 1000L) {
+            return new TimedTyping.TypingResult(0.0, "", true);
+        }
+
+        String input = new String(typed, 0, length);
+        int maxLength = Math.max(length, challenge.length());
+        double accuracy = EditDistance.accuracy(distance.distance(input, challenge), maxLength);
+        int[] keyLatencies = null;
+        if (recordLatencies) {
+            keyLatencies = new int[length];
+            System.arraycopy(latencies, 0, keyLatencies, 0, length);
+        }
+        return new TimedTyping.TypingResult(accuracy, input, false, keyLatencies);
+    }
+
+    /**
+     * Attack, unless health is under 30% and there is a potion to drink
+     */
+    @Override
+    public BattleEngine.Action chooseAction(Player player, Monster monster) {
+        if (player.getPotionCount() > 0 && player.getHealth() * 10 < player.getMaxHealth() * 3) {
+            return BattleEngine.Action.POTION;
+        }
+        return BattleEngine.Action.ATTACK;
+    }
+
+    /**
+     * Time the last challenge took to type, in milliseconds
+     */
+    public long getLastElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    protected final void press(char c, int latencyMillis) {
+        if (length == typed.length) {
+            char[] grownTyped = new char[length * 2];
+            int[] grownLatencies = new int[length * 2];
+            System.arraycopy(typed, 0, grownTyped, 0, length);
+            System.arraycopy(latencies, 0, grownLatencies, 0, length);
+            typed = grownTyped;
+            latencies = grownLatencies;
+        }
+        typed[length] = c;
+        latencies[length] = latencyMillis;
+        length++;
+        elapsedMillis += latencyMillis;
+    }
+
+    /**
+     * Standard normal value (polar method, keeping the second value for the next call)
+     */
+    protected final double gaussian() {
+        if (haveSpareGaussian) {
+            haveSpareGaussian = false;
+            return spareGaussian;
+        }
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        double scale = Math.sqrt(-2 * Math.log(s) / s);
+        spareGaussian = v * scale;
+        haveSpareGaussian = true;
+        return u * scale;
+    }
+
+    /**
+     * Latency drawn from a normal distribution, never below 10 ms
+     */
+    protected final int latency(double mean, double standardDeviation) {
+        return (int) Math.max(10, mean + standardDeviation * gaussian());
+    }
+
+    /**
+     * A key next to c on a QWERTY keyboard, keeping its case; a random
+     * letter for anything that isn't a letter
+     */
+    protected final char nearbyKey(char c) {
+        int key = TypingProfile.keyIndex(c);
+        if (key == TypingProfile.OTHER_KEY) {
+            return (char) ('a' + random.nextInt(26));
+        }
+        char[] options = NEIGHBOURS[key];
+        char neighbour = options[random.nextInt(options.length)];
+        return Character.isUpperCase(c) ? Character.toUpperCase(neighbour) : neighbour;
+    }
+
+    private static char[][] buildNeighbours() {
+        char[][] neighbours = new char[26][];
+        for (int row = 0; row < ROWS.length; row++) {
+            for (int column = 0; column < ROWS[row].length(); column++) {
+                StringBuilder around = new StringBuilder();
+                // Same row either side, and the staggered rows above and below
+                appendKey(around, row, column - 1);
+                appendKey(around, row, column + 1);
+                appendKey(around, row - 1, column);
+                appendKey(around, row - 1, column + 1);
+                appendKey(around, row + 1, column - 1);
+                appendKey(around, row + 1, column);
+                neighbours[ROWS[row].charAt(column) - 'a'] = around.toString().toCharArray();
+            }
+        }
+        return neighbours;
+    }
+
+    private static void appendKey(StringBuilder keys, int row, int column) {
+        if (row >= 0 && row < ROWS.length && column >= 0 && column < ROWS[row].length()) {
+            keys.append(ROWS[row].charAt(column));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package src;
+
+/**
+ * Read-only, indexed list of words that challenges are drawn from
+ */
+public interface WordBank {
+    /**
+     * Number of words in the bank
+     */
+    int size();
+
+    /**
+     * Word at an index in [0, size())
+     */
+    String get(int index);
+}
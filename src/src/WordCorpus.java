@@ -0,0 +1,213 @@
+package src;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only word list stored in a compact binary file.
+ *
+ * File layout (big-endian):
+ *   int magic ("KWC1"), int count, int[count + 1] byte offsets, UTF-8 word bytes
+ *
+ * Corpus files are memory-mapped, so loading even a very large list only
+ * reads the header and checks the offsets table; the OS pages in the words
+ * on demand and none of it lives on the Java heap. Words are decoded to Strings only when asked for.
+ * Instances are immutable and safe to share between threads.
+ *
+ * Build a corpus from a plain word list (one word per line) with:
+ *   java src.WordCorpus words.txt src/resources/words/en.kwc
+ */
+public class WordCorpus implements WordBank {
+    private static final int MAGIC = 0x4B574331; // "KWC1"
+    private static final int HEADER_SIZE = 8;
+
+    // One corpus per language per JVM
+    private static final Map<String, WordCorpus> LOADED = new ConcurrentHashMap<>();
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int dataStart;
+
+    private WordCorpus(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a word corpus file");
+        }
+        this.count = buffer.getInt(4);
+        if (count < 0 || count >= (buffer.capacity() - HEADER_SIZE) / 4) {
+            throw new IOException("Corrupt word corpus: bad word count");
+        }
+        this.dataStart = HEADER_SIZE + (count + 1) * 4;
+
+        // Check every offset now so a corrupt file fails here, not in the middle of a game
+        int dataSize = buffer.capacity() - dataStart;
+        int previous = 0;
+        for (int i = 0; i <= count; i++) {
+            int offset = buffer.getInt(HEADER_SIZE + i * 4);
+            if (offset < previous || offset > dataSize) {
+                throw new IOException("Corrupt word corpus: bad offset for word " + i);
+            }
+            previous = offset;
+        }
+    }
+
+    /**
+     * Memory-map a corpus file
+     */
+    public static WordCorpus map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new WordCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Corpus held on the heap, for small or custom word lists
+     */
+    public static WordCorpus of(List<String> words) {
+        try {
+            return new WordCorpus(ByteBuffer.wrap(encode(words)));
+        } catch (IOException e) {
+            // encode always writes a valid header
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The shared corpus for a language, loaded at most once per JVM from
+     * /resources/words/<language>.kwc. Returns null if there is no corpus
+     * for that language.
+     */
+    public static WordCorpus forLanguage(String language) {
+        WordCorpus corpus = LOADED.get(language);
+        if (corpus == null) {
+            corpus = LOADED.computeIfAbsent(language, WordCorpus::loadResource);
+        }
+        return corpus;
+    }
+
+    private static WordCorpus loadResource(String language) {
+        String path = "/resources/words/" + language + ".kwc";
+        URL url = WordCorpus.class.getResource(path);
+        if (url == null) {
+            return null;
+        }
+
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return map(Paths.get(url.toURI()));
+            }
+            // Packed inside a jar: can't be mapped, read it onto the heap once
+            try (InputStream in = url.openStream()) {
+                return new WordCorpus(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("Failed to load word corpus " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Decode the word at an index
+     */
+    @Override
+    public String get(int index) {
+        int start = offset(index);
+        int length = offset(index + 1) - start;
+        byte[] bytes = new byte[length];
+        // Absolute read keeps the shared buffer's position untouched
+        buffer.get(dataStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encoded length of a word in bytes, without decoding it
+     */
+    public int byteLength(int index) {
+        return offset(index + 1) - offset(index);
+    }
+
+    /**
+     * One raw UTF-8 byte of a word, for scanning words without decoding them
+     */
+    public byte byteAt(int index, int position) {
+        return buffer.get(dataStart + offset(index) + position);
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index > count) {
+            throw new IndexOutOfBoundsException("Word " + index + " of " + count);
+        }
+        return buffer.getInt(HEADER_SIZE + index * 4);
+    }
+
+    /**
+     * Encode a word list in the corpus format
+     */
+    public static byte[] encode(List<String> words) {
+        byte[][] encoded = new byte[words.size()][];
+        int dataSize = 0;
+        for (int i = 0; i < words.size(); i++) {
+            encoded[i] = words.get(i).getBytes(StandardCharsets.UTF_8);
+            dataSize += encoded[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + (words.size() + 1) * 4 + dataSize);
+        out.putInt(MAGIC);
+        out.putInt(words.size());
+        int offset = 0;
+        for (byte[] word : encoded) {
+            out.putInt(offset);
+            offset += word.length;
+        }
+        out.putInt(offset);
+        for (byte[] word : encoded) {
+            out.put(word);
+        }
+        return out.array();
+    }
+
+    /**
+     * Convert a plain text word list (one word per line, # for comments)
+     * into a corpus file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java src.WordCorpus <words.txt> <output.kwc>");
+            return;
+        }
+
+        List<String> words = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            String word = line.trim();
+            if (!word.isEmpty() && !word.startsWith("#")) {
+                words.add(word);
+            }
+        }
+
+        Path output = Paths.get(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.write(output, encode(words));
+        System.out.println("Wrote " + words.size() + " words to " + output);
+    }
+}
@@ -0,0 +1,217 @@
+package src;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Word bank words grouped into difficulty buckets.
+ *
+ * Each word gets a typing difficulty score from its length, rare letters,
+ * same-finger bigrams and how often it stays on one hand (QWERTY). Words are
+ * sorted by score once and split into equal-sized buckets, stored as one
+ * int[] of word ids plus bucket start offsets, so picking a word of a given
+ * difficulty is an O(1) array lookup no matter how big the bank is.
+ */
+public class WordDifficultyIndex {
+    public static final int MAX_BUCKETS = 10;
+
+    // Small word banks use fewer buckets so each one still has some variety
+    private static final int MIN_BUCKET_WORDS = 50;
+
+    // Indexes are built once per word bank and shared. They hold no reference
+    // back to their bank, so the weak keys can still be collected.
+    private static final Map<WordBank, WordDifficultyIndex> INDEXES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    // QWERTY finger for each letter a-z: 0-3 left hand pinky to index, 4-7 right hand index to pinky
+    private static final int[] FINGERS = {
+            0, 3, 2, 2, 2, 3, 3, 4, 5, 4, 5, 6, 4, // a-m
+            4, 6, 7, 0, 3, 1, 3, 4, 3, 1, 1, 4, 0  // n-z
+    };
+
+    // Extra cost for letters that are rare in English text, a-z
+    private static final double[] RARITY = {
+            0, 0.5, 0.25, 0, 0, 0.25, 0.5, 0, 0, 1.5, 1.0, 0, 0.25, // a-m
+            0, 0, 0.25, 1.5, 0, 0, 0, 0.25, 1.0, 0.5, 1.5, 0.5, 1.5 // n-z
+    };
+
+    private final int bucketCount;
+    private final int[] wordIds;
+    private final int[] bucketStart;
+    private final double[] bucketFloor;
+
+    private WordDifficultyIndex(WordBank bank) {
+        int count = bank.size();
+
+        // Pack (score, id) into longs so a primitive sort orders ids by score
+        long[] keyed = new long[count];
+        Scorer scorer = new Scorer();
+        for (int i = 0; i < count; i++) {
+            float score = (float) scoreWord(bank, i, scorer);
+            keyed[i] = ((long) Float.floatToIntBits(score) << 32) | i;
+        }
+        Arrays.sort(keyed);
+
+        wordIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            wordIds[i] = (int) keyed[i];
+        }
+
+        bucketCount = Math.max(1, Math.min(MAX_BUCKETS, count / MIN_BUCKET_WORDS));
+        bucketStart = new int[bucketCount + 1];
+        bucketFloor = new double[bucketCount];
+        for (int b = 0; b <= bucketCount; b++) {
+            bucketStart[b] = (int) ((long) count * b / bucketCount);
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            int first = bucketStart[b];
+            bucketFloor[b] = first < count
+                    ? Float.intBitsToFloat((int) (keyed[first] >>> 32))
+                    : Double.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Index for a word bank, built on first use
+     */
+    public static WordDifficultyIndex forBank(WordBank bank) {
+        synchronized (INDEXES) {
+            return INDEXES.computeIfAbsent(bank, WordDifficultyIndex::new);
+        }
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Bucket for a game difficulty (monster level). Difficulties 1 to
+     * MAX_BUCKETS spread evenly over the buckets; anything higher uses the hardest.
+     */
+    public int bucketForDifficulty(int difficulty) {
+        int level = Math.max(1, Math.min(MAX_BUCKETS, difficulty));
+        return (level - 1) * bucketCount / MAX_BUCKETS;
+    }
+
+    public int bucketSize(int bucket) {
+        return bucketStart[bucket + 1] - bucketStart[bucket];
+    }
+
+    /**
+     * Word bank index of the n-th word in a bucket
+     */
+    public int wordId(int bucket, int n) {
+        return wordIds[bucketStart[bucket] + n];
+    }
+
+    /**
+     * Bucket a word outside the bank would fall in
+     */
+    public int bucketForWord(String word) {
+        double score = score(word);
+        int bucket = 0;
+        for (int b = 1; b < bucketCount; b++) {
+            if (bucketSize(b) > 0 && bucketFloor[b] <= score) {
+                bucket = b;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Typing difficulty of a word; higher is harder
+     */
+    public static double score(String word) {
+        return scoreChars(word, new Scorer());
+    }
+
+    private static double scoreChars(String word, Scorer scorer) {
+        scorer.reset();
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            scorer.accept(c < 128 ? c : -1);
+        }
+        return scorer.result();
+    }
+
+    private static double scoreWord(WordBank bank, int index, Scorer scorer) {
+        if (!(bank instanceof WordCorpus)) {
+            return scoreChars(bank.get(index), scorer);
+        }
+
+        // Corpus words are scanned in place without decoding them
+        WordCorpus corpus = (WordCorpus) bank;
+        scorer.reset();
+        int length = corpus.byteLength(index);
+        for (int i = 0; i < length; i++) {
+            int b = corpus.byteAt(index, i) & 0xFF;
+            if (b < 0x80) {
+                scorer.accept(b);
+            } else if ((b & 0xC0) != 0x80) {
+                // Lead byte of a multi-byte character; continuation bytes are skipped
+                scorer.accept(-1);
+            }
+        }
+        return scorer.result();
+    }
+
+    /**
+     * Accumulates a score one character at a time. Characters outside ASCII
+     * are passed as -1 and treated as hard to type.
+     */
+    private static class Scorer {
+        private double score;
+        private int previousFinger;
+        private int previousLetter;
+
+        Scorer() {
+            reset();
+        }
+
+        void reset() {
+            score = 0;
+            previousFinger = -1;
+            previousLetter = -1;
+        }
+
+        void accept(int c) {
+            // Every character costs one keystroke
+            score += 1.0;
+
+            int lower = c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+            if (lower < 'a' || lower > 'z') {
+                // Digits, punctuation, non-ASCII: reaching off the home letters
+                score += c == ' ' ? 0 : 1.0;
+                previousFinger = -1;
+                previousLetter = -1;
+                return;
+            }
+            if (lower != c) {
+                // Shift key
+                score += 0.5;
+            }
+
+            int letter = lower - 'a';
+            int finger = FINGERS[letter];
+            score += RARITY[letter];
+
+            if (previousFinger >= 0) {
+                if (finger == previousFinger && letter != previousLetter) {
+                    // Same finger, different key: the hardest bigrams
+                    score += 1.0;
+                } else if ((finger < 4) == (previousFinger < 4)) {
+                    // Same hand, no alternation
+                    score += 0.25;
+                }
+            }
+            previousFinger = finger;
+            previousLetter = letter;
+        }
+
+        double result() {
+            return score;
+        }
+    }
+}
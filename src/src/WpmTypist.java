@@ -0,0 +1,73 @@
+package src;
+
+import java.util.Random;
+
+/**
+ * Types at a fixed speed with normally distributed key latencies, and
+ * optionally makes typos at fixed rates: hitting a neighbouring key,
+ * swapping two keys, or skipping a key.
+ */
+public class WpmTypist extends TypistModel {
+    private final double meanLatency;
+    private final double latencyDeviation;
+
+    private double substitutionRate;
+    private double transpositionRate;
+    private double omissionRate;
+
+    /**
+     * @param wordsPerMinute speed, with the usual five characters per word
+     * @param jitter         standard deviation of a key latency as a fraction of the mean
+     */
+    public WpmTypist(double wordsPerMinute, double jitter, Random random) {
+        super(random);
+        if (wordsPerMinute <= 0) {
+            throw new IllegalArgumentException("Words per minute must be positive");
+        }
+        this.meanLatency = 60_000.0 / (wordsPerMinute * 5);
+        this.latencyDeviation = meanLatency * jitter;
+    }
+
+    /**
+     * Chance per target character of each kind of typo
+     */
+    public void setErrorRates(double substitution, double transposition, double omission) {
+        if (substitution < 0 || transposition < 0 || omission < 0
+                || substitution + transposition + omission > 1) {
+            throw new IllegalArgumentException("Error rates must be non-negative and sum to at most 1");
+        }
+        this.substitutionRate = substitution;
+        this.transpositionRate = transposition;
+        this.omissionRate = omission;
+    }
+
+    @Override
+    protected void typeChallenge(String target) {
+        int n = target.length();
+        for (int i = 0; i < n; i++) {
+            char c = target.charAt(i);
+            double roll = random.nextDouble();
+
+            if (roll < omissionRate) {
+                continue;
+            }
+            roll -= omissionRate;
+
+            if (roll < transpositionRate) {
+                if (i + 1 < n) {
+                    press(target.charAt(i + 1), latency(meanLatency, latencyDeviation));
+                    press(c, latency(meanLatency, latencyDeviation));
+                    i++;
+                } else {
+                    // Nothing to swap the last key with; type it correctly so
+                    // it isn't mistyped more often than the substitution rate
+                    press(c, latency(meanLatency, latencyDeviation));
+                }
+                continue;
+            }
+            roll -= transpositionRate;
+
+            press(roll < substitutionRate ? nearbyKey(c) : c, latency(meanLatency, latencyDeviation));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package src;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextHitInfo;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A block of text broken into lines to fit a width, laid out once and then
+ * drawn from the cached layouts. '\n' starts a new line.
+ *
+ * draw() can show just the first so many characters, for typewriter
+ * reveals: earlier lines are drawn whole, the line being typed is clipped
+ * at the caret, so words never jump to the next line as they appear and a
+ * frame costs the same however long the text is.
+ *
+ * getBounds() gives the area a range of characters covers, so a reveal can
+ * repaint just the characters it added.
+ *
+ * The layout is redone only if the font rendering context changes (e.g. the
+ * window moves to a screen with different scaling).
+ */
+public class WrappedText {
+    // Slack around glyphs for antialiasing and slight overhangs
+    private static final int PAD = 2;
+
+    private final String text;
+    private final Font font;
+    private final int width;
+    private final int lineHeight;
+
+    private FontRenderContext layoutContext;
+    private TextLayout[] lines;      // null for blank lines
+    private int[] lineStart;         // index of each line's first character
+    private int[] lineEnd;           // one past each line's last character
+    // x of the leading edge of every character within its line
+    private float[] caretX;
+
+    /**
+     * @param lineSpacing line height as a multiple of the font's
+     */
+    public WrappedText(String text, Font font, int width, float lineSpacing) {
+        this.text = text;
+        this.font = font;
+        this.width = width;
+        this.lineHeight = (int) (FontLoader.getMetrics(font).getHeight() * lineSpacing);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Draw the first visibleChars characters with the first baseline at (x, y)
+     */
+    public void draw(Graphics2D g, int x, int y, int visibleChars) {
+        layOut(g.getFontRenderContext());
+        int visible = Math.max(0, Math.min(visibleChars, text.length()));
+
+        for (int line = 0; line < lines.length && lineStart[line] < visible; line++) {
+            int baseline = y + line * lineHeight;
+            TextLayout layout = lines[line];
+            if (layout == null) {
+                continue;
+            }
+            if (visible >= lineEnd[line]) {
+                layout.draw(g, x, baseline);
+            } else {
+                // Part way through this line: clip at the caret
+                Shape clip = g.getClip();
+                g.clipRect(x, baseline - lineHeight, (int) Math.ceil(caretX[visible]), lineHeight * 2);
+                layout.draw(g, x, baseline);
+                g.setClip(clip);
+            }
+        }
+    }
+
+    /**
+     * The area covered by characters from up to (not including) to, for the
+     * same (x, y) as draw(); empty if they are all blank or line breaks
+     */
+    public Rectangle getBounds(int x, int y, int from, int to) {
+        if (lines == null) {
+            // Not drawn yet: lay out as Swing would measure the font
+            layOut(FontLoader.getMetrics(font).getFontRenderContext());
+        }
+        from = Math.max(0, from);
+        to = Math.min(to, text.length());
+
+        Rectangle bounds = new Rectangle(x, y, 0, 0);
+        for (int line = 0; line < lines.length && lineStart[line] < to; line++) {
+            TextLayout layout = lines[line];
+            if (layout == null || lineEnd[line] <= from) {
+                continue;
+            }
+            float left = from > lineStart[line] ? caretX[from] : 0;
+            float right = to < lineEnd[line] ? caretX[to] : layout.getAdvance();
+            int ascent = (int) Math.ceil(layout.getAscent());
+            int descent = (int) Math.ceil(layout.getDescent());
+            Rectangle area = new Rectangle(x + (int) left - PAD, y + line * lineHeight - ascent - PAD,
+                    (int) Math.ceil(right - left) + 2 * PAD, ascent + descent + 2 * PAD);
+            if (bounds.isEmpty()) {
+                bounds = area;
+            } else {
+                bounds.add(area);
+            }
+        }
+        return bounds;
+    }
+
+    private void layOut(FontRenderContext context) {
+        if (lines != null && context.equals(layoutContext)) {
+            return;
+        }
+        layoutContext = context;
+
+        List<TextLayout> layouts = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+        caretX = new float[text.length()];
+
+        int paragraphStart = 0;
+        while (paragraphStart <= text.length()) {
+            int paragraphEnd = text.indexOf('\n', paragraphStart);
+            if (paragraphEnd < 0) {
+                paragraphEnd = text.length();
+            }
+
+            if (paragraphEnd == paragraphStart) {
+                layouts.add(null);
+                ranges.add(new int[]{paragraphStart, paragraphEnd});
+            } else {
+                AttributedString paragraph = new AttributedString(text.substring(paragraphStart, paragraphEnd));
+                paragraph.addAttribute(TextAttribute.FONT, font);
+                LineBreakMeasurer measurer = new LineBreakMeasurer(paragraph.getIterator(), context);
+                while (measurer.getPosition() < paragraphEnd - paragraphStart) {
+                    int start = paragraphStart + measurer.getPosition();
+                    TextLayout layout = measurer.nextLayout(width);
+                    int end = paragraphStart + measurer.getPosition();
+                    for (int i = start; i < end; i++) {
+                        caretX[i] = layout.getCaretInfo(TextHitInfo.leading(i - start))[0];
+                    }
+                    layouts.add(layout);
+                    ranges.add(new int[]{start, end});
+                }
+            }
+            paragraphStart = paragraphEnd + 1;
+        }
+
+        lines = layouts.toArray(new TextLayout[0]);
+        lineStart = new int[lines.length];
+        lineEnd = new int[lines.length];
+        for (int line = 0; line < lines.length; line++) {
+            lineStart[line] = ranges.get(line)[0];
+            lineEnd[line] = ranges.get(line)[1];
+        }
+    }
+}